@@ -0,0 +1,49 @@
+package benchmark;
+
+import chess.ChessBoard;
+import chess.Fen;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class ChessBoardBenchmark {
+
+    private ChessBoard board;
+    private ChessBoard same;
+    private ChessBoard different;
+
+    @Setup
+    public void setup() {
+        board = Fen.parse(Positions.MIDDLEGAME).getBoard();
+        same = Fen.parse(Positions.MIDDLEGAME).getBoard();
+        different = Fen.parse(Positions.OPENING).getBoard();
+    }
+
+    @Benchmark
+    public ChessBoard resetBoard() {
+        ChessBoard fresh = new ChessBoard();
+        fresh.resetBoard();
+        return fresh;
+    }
+
+    @Benchmark
+    public int boardHashCode() {
+        return board.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsSame() {
+        return board.equals(same);
+    }
+
+    @Benchmark
+    public boolean equalsDifferent() {
+        return board.equals(different);
+    }
+}
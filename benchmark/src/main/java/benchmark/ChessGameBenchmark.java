@@ -0,0 +1,94 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.InvalidMoveException;
+import chess.LegalMoveCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class ChessGameBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME"})
+    public String position;
+
+    private ChessGame game;
+    private ChessGame checkmated;
+    private List<ChessPosition> squares;
+    private List<ChessMove> moves;
+    private int next;
+
+    @Setup
+    public void setup() {
+        game = Fen.parse(position.equals("OPENING") ? Positions.OPENING : Positions.MIDDLEGAME);
+        checkmated = Fen.parse(Positions.CHECKMATE);
+        squares = Positions.movableSquares(game);
+        moves = Positions.legalMoves(game);
+    }
+
+    // empties the process-wide LegalMoveCache before each call, so the call generates moves rather than reading the
+    // ones an earlier call left; the *Cached benchmarks leave it alone and measure the hits instead
+    @State(Scope.Thread)
+    public static class ColdCache {
+        @Setup(Level.Invocation)
+        public void clear() { LegalMoveCache.shared().clear(); }
+    }
+
+    // legal moves for every piece of the side to move, as a client highlighting the board or checkHelper would ask;
+    // the first square generates the position's moves and the rest find them in the cache
+    @Benchmark
+    public void validMovesAllPieces(Blackhole bh, ColdCache cold) {
+        for (ChessPosition square : squares) { bh.consume(game.validMoves(square)); }
+    }
+
+    @Benchmark
+    public void validMovesAllPiecesCached(Blackhole bh) {
+        for (ChessPosition square : squares) { bh.consume(game.validMoves(square)); }
+    }
+
+    // copies the position and plays one legal move; the copy is included so the game under test is never mutated
+    @Benchmark
+    public ChessGame makeMove() throws InvalidMoveException {
+        ChessGame copy = new ChessGame(game);
+        copy.makeMove(moves.get(next++ % moves.size()));
+        return copy;
+    }
+
+    @Benchmark
+    public ChessGame copyOnly() {
+        return new ChessGame(game);
+    }
+
+    // the game status checks the websocket handler runs after every move
+    @Benchmark
+    public boolean isInCheckmateNotMated(ColdCache cold) {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheckmateMated(ColdCache cold) {
+        return checkmated.isInCheckmate(checkmated.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInStalemate(ColdCache cold) {
+        return game.isInStalemate(game.getTeamTurn());
+    }
+
+    // setup's legal move list leaves the position in the cache
+    @Benchmark
+    public boolean isInStalemateCached() {
+        return game.isInStalemate(game.getTeamTurn());
+    }
+}
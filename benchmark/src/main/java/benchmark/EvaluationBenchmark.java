@@ -0,0 +1,68 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.Evaluation;
+import chess.Fen;
+import chess.Move;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluations per second with the running material and piece-square score against adding it up square by square,
+ * both on a still position and after each legal move, which is how hints and advantage bars use it
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class EvaluationBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME"})
+    public String position;
+
+    private ChessGame game;
+    private int[] moves;
+    private int count;
+
+    @Setup
+    public void setup() {
+        game = Fen.parse(position.equals("OPENING") ? Positions.OPENING : Positions.MIDDLEGAME);
+        moves = new int[Move.MAX_MOVES];
+        count = game.generateLegalMoves(moves);
+    }
+
+    @Benchmark
+    public int incremental() {
+        return game.getEvaluation();
+    }
+
+    @Benchmark
+    public int fullRescan() {
+        return Evaluation.evaluateByRescan(game.getBoard());
+    }
+
+    @Benchmark
+    public int afterEachMoveIncremental() {
+        int sum = 0;
+        for (int i = 0; i < count; i++) {
+            long undo = game.doMove(moves[i]);
+            sum += game.getEvaluation();
+            game.undoMove(undo);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int afterEachMoveRescan() {
+        int sum = 0;
+        for (int i = 0; i < count; i++) {
+            long undo = game.doMove(moves[i]);
+            sum += Evaluation.evaluateByRescan(game.getBoard());
+            game.undoMove(undo);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,39 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.Perft;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// positions shared by the benchmarks, chosen to cover the opening, a busy middlegame and a finished game
+final class Positions {
+    private Positions() {}
+
+    static final String OPENING = Fen.STARTING_POSITION;
+    static final String MIDDLEGAME = Perft.POSITION_6;
+    static final String CHECKMATE = "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3";
+
+    // every square holding a piece of the side to move
+    static List<ChessPosition> movableSquares(ChessGame game) {
+        List<ChessPosition> squares = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                var position = ChessPosition.of(row, col);
+                var piece = game.getBoard().getPiece(position);
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) { squares.add(position); }
+            }
+        }
+        return squares;
+    }
+
+    // every legal move of the side to move
+    static List<ChessMove> legalMoves(ChessGame game) {
+        List<ChessMove> moves = new ArrayList<>();
+        for (ChessPosition position : movableSquares(game)) { moves.addAll(game.validMoves(position)); }
+        return moves;
+    }
+}
@@ -6,7 +6,9 @@ import model.*;
 
 import java.io.*;
 import java.net.*;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 
@@ -47,7 +49,26 @@ public class ServerFacade {
     }
 
     public Object listGames(String authToken) throws ResponseException {
-        return this.makeRequest("GET", "/game", null, GameList.class, authToken);
+        return listGames(authToken, GameQuery.all());
+    }
+
+    // one page of games; pass the result's next value as the query's after to get the page that follows
+    public Object listGames(String authToken, GameQuery query) throws ResponseException {
+        StringBuilder path = new StringBuilder("/game");
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("after", query.after());
+        params.put("limit", query.limit());
+        params.put("open", query.open());
+        params.put("finished", query.finished());
+        params.put("player", query.player());
+        String separator = "?";
+        for (Map.Entry<String, Object> param : params.entrySet()) {
+            if (param.getValue() == null) { continue; }
+            path.append(separator).append(param.getKey()).append('=')
+                    .append(URLEncoder.encode(param.getValue().toString(), StandardCharsets.UTF_8));
+            separator = "&";
+        }
+        return this.makeRequest("GET", path.toString(), null, GameSummaryList.class, authToken);
     }
 
     private <T> T makeRequest(String method, String path, Object request, Class<T> responseClass, String authToken) throws ResponseException {
@@ -85,7 +85,7 @@ public class ChessBoardDisplay {
     }
 
     private static String getPieceString(ChessBoard board, int row, int col, boolean highlight) {
-        ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+        ChessPiece piece = board.getPiece(ChessPosition.of(row, col));
         String background = (highlight) ? HIGHLIGHT : ( ((row + col) % 2 == 0) ? BLACK_TILE : WHITE_TILE );
         if (piece!=null) {
             if (piece.getTeamColor() == ChessGame.TeamColor.WHITE) {
@@ -106,13 +106,13 @@ public class ChessBoardDisplay {
         out.print(borderFormat(row));
         if (perspective == ChessGame.TeamColor.WHITE) {
             for (int i = 1; i <= 8; i++) {
-                if (highlight != null && highlight.contains(new ChessPosition(row, i)))
+                if (highlight != null && highlight.contains(ChessPosition.of(row, i)))
                     out.print(getPieceString(board, row, i, true));
                 else out.print(getPieceString(board, row, i, false));
             }
         } else {
             for (int i = 8; i >= 1; i--) {
-                if (highlight != null && highlight.contains(new ChessPosition(row, i)))
+                if (highlight != null && highlight.contains(ChessPosition.of(row, i)))
                     out.print(getPieceString(board, row, i, true));
                 else out.print(getPieceString(board, row, i, false));
             }
@@ -6,7 +6,7 @@ import chess.ChessPiece;
 import chess.ChessPosition;
 import com.google.gson.Gson;
 import exception.ResponseException;
-import model.GameData;
+import model.GameSummary;
 import serverfacade.ServerFacade;
 import websocket.MakeMoveStruct;
 import websocket.WebSocketClient;
@@ -28,14 +28,15 @@ public class GameplayUI {
     ChessGame.TeamColor perspective = null;
     boolean player;
 
-    public GameplayUI(String user, String authToken, GameData currentGameData, ChessGame.TeamColor perspective, int gameID, boolean player) {
+    public GameplayUI(String user, String authToken, GameSummary summary, ChessGame.TeamColor perspective, int gameID, boolean player) {
         this.username = user;
         this.auth = authToken;
         this.perspective = perspective;
         this.gameID = gameID;
-        this.client = new WebSocketClient(username, auth, gameID, currentGameData.game(), perspective);
+        // the listing carries no board, so there is none until the server's LOAD_GAME arrives after CONNECT
+        this.client = new WebSocketClient(username, auth, gameID, null, perspective);
         this.player = player;
-
+        System.out.println(EscapeSequences.BLUE + header(summary) + EscapeSequences.RESET);
 
         try {
             WebSocketContainer container = ContainerProvider.getWebSocketContainer();
@@ -68,6 +69,15 @@ public class GameplayUI {
         return EscapeSequences.BLUE + result + EscapeSequences.RESET + EscapeSequences.WHITE;
     }
 
+    private static String header(GameSummary summary) {
+        return summary.gameName() + ": " + seat(summary.whiteUsername()) + " (white) vs " + seat(summary.blackUsername())
+                + " (black)" + (summary.finished() ? " - finished" : "");
+    }
+
+    private static String seat(String username) {
+        return (username == null) ? "open seat" : username;
+    }
+
     public static void printPrompt(String username) {
         System.out.print(EscapeSequences.RESET + EscapeSequences.GREEN + '[' + username + "] >>> " + EscapeSequences.WHITE);
     }
@@ -15,6 +15,12 @@ public class LoggedinUI {
     private final String username;
     private final String auth;
     private Map<Integer, Integer> gameNumbers;
+    // games shown since the last list command, by the number they were shown with
+    private final Map<Integer, GameSummary> listedGames = new HashMap<>();
+    private static final int PAGE_SIZE = 10;
+    // filters of the last list command, and where its next page starts; null once the last page has been shown
+    private GameQuery listQuery;
+    private Integer nextPage;
 
     public LoggedinUI(ServerFacade serverFacade, String user, String authToken) {
         this.server = serverFacade;
@@ -54,7 +60,8 @@ public class LoggedinUI {
             var params = Arrays.copyOfRange(tokens, 1, tokens.length);
             return switch (cmd) {
                 case "create" -> create(params);
-                case "list" -> list();
+                case "list" -> list(params);
+                case "more" -> more();
                 case "join" -> join(params);
                 case "observe" -> observe(params);
                 case "logout" -> logout();
@@ -80,20 +87,64 @@ public class LoggedinUI {
         return "Failed to create game";
     }
 
-    public String list() throws ResponseException {
-        var ret = server.listGames(auth);
-        if (ret.getClass()==GameList.class) {
-            List<GameData> list = ((GameList)ret).games();
+    public String list(String... params) throws ResponseException {
+        Boolean open = null;
+        Boolean finished = null;
+        String player = null;
+        for (int i = 0; i < params.length; i++) {
+            switch (params[i]) {
+                case "open" -> open = true;
+                case "finished" -> finished = true;
+                case "active" -> finished = false;
+                case "mine" -> player = this.username;
+                case "player" -> {
+                    if (++i == params.length) {
+                        return EscapeSequences.RED + "player needs a <NAME>\n" + EscapeSequences.RESET;
+                    }
+                    player = params[i];
+                }
+                default -> {
+                    return EscapeSequences.RED + "Unknown filter " + params[i] + ". Filters: open, finished, active, mine, player <NAME>\n" + EscapeSequences.RESET;
+                }
+            }
+        }
+        this.gameNumbers = new HashMap<>();
+        listedGames.clear();
+        listQuery = new GameQuery(null, PAGE_SIZE, open, finished, player);
+        return showPage(listQuery);
+    }
+
+    public String more() throws ResponseException {
+        if (listQuery == null) {
+            return EscapeSequences.RED + "You must call list before you can see more games\n" + EscapeSequences.RESET;
+        }
+        if (nextPage == null) {
+            return "No more games\n";
+        }
+        return showPage(listQuery.after(nextPage));
+    }
+
+    // numbers the page's games after those already shown, so join and observe work with any of them
+    private String showPage(GameQuery query) throws ResponseException {
+        var ret = server.listGames(auth, query);
+        if (ret.getClass()==GameSummaryList.class) {
+            GameSummaryList page = (GameSummaryList)ret;
             String response = "";
-            Map <Integer, Integer> nums = new HashMap<>();
-            for (int i = 0; i < list.size(); i++) {
-                GameData game = list.get(i);
-                nums.put(i + 1, game.gameID());
-                response = response.concat("Game " + (i+1) + "\n\tGameName: " + game.gameName() + "\n");
+            for (GameSummary game : page.games()) {
+                int number = listedGames.size() + 1;
+                listedGames.put(number, game);
+                gameNumbers.put(number, game.gameID());
+                response = response.concat("Game " + number + "\n\tGameName: " + game.gameName() + (game.finished() ? " (finished)" : "") + "\n");
                 response = response.concat("\tWhiteUser: " + game.whiteUsername() + "\n\tBlackUser: " + game.blackUsername() + "\n");
             }
-            this.gameNumbers = nums;
-           return response;
+            if (listedGames.isEmpty()) {
+                response = "No games found\n";
+            }
+            nextPage = page.next();
+            if (nextPage != null) {
+                response = response.concat("Type more to see more games\n");
+            }
+            return response;
         }
         return EscapeSequences.RED + "Failed to list games\n" + EscapeSequences.RESET;
     }
@@ -129,13 +180,11 @@ public class LoggedinUI {
                 return EscapeSequences.RED + "Failed to join game\n" + EscapeSequences.RESET;
             }
             if (ret!=Collections.emptyMap()) {
-                var tmp = server.listGames(auth);
-                List<GameData> list = ((GameList)tmp).games();
                 ChessGame.TeamColor teamColor;
                 if (color.equals("black") || color.equals("BLACK")) { teamColor = ChessGame.TeamColor.BLACK; }
                 else { teamColor = ChessGame.TeamColor.WHITE; }
-                System.out.print(EscapeSequences.RESET + EscapeSequences.BLUE + "Joined game " + list.get(gameID-1).gameName() + "!\n");
-                new GameplayUI(this.username, this.auth, list.get(gameID-1), teamColor, gameNumbers.get(gameID), true).repl();
+                System.out.print(EscapeSequences.RESET + EscapeSequences.BLUE + "Joined game " + listedGames.get(gameID).gameName() + "!\n");
+                new GameplayUI(this.username, this.auth, listedGames.get(gameID), teamColor, gameNumbers.get(gameID), true).repl();
                 return "";
 
             } else {
@@ -166,9 +215,7 @@ public class LoggedinUI {
         }
         System.out.println(EscapeSequences.BLUE +  "Observing game " + params[0]);
         int gameNum = gameNumbers.get(gameID);
-        var tmp = server.listGames(auth);
-        List<GameData> list = ((GameList)tmp).games();
-        new GameplayUI(this.username, this.auth, list.get(gameID-1), ChessGame.TeamColor.WHITE, gameNum, false).repl();
+        new GameplayUI(this.username, this.auth, listedGames.get(gameID), ChessGame.TeamColor.WHITE, gameNum, false).repl();
         return "";
     }
 
@@ -183,7 +230,8 @@ public class LoggedinUI {
         System.out.print(EscapeSequences.BLUE);
         return """
                    create <NAME> - create a game
-                   list - list games
+                   list [open|finished|active|mine|player <NAME>] - list games, optionally filtered
+                   more - list the next page of games
                    join <ID> [WHITE|BLACK] - join game #ID as [WHITE|BLACK]
                    observe <ID> - observe game #ID
                    logout - logout of program
@@ -57,11 +57,13 @@ public class WebSocketClient extends Endpoint {
     }
 
     public void redraw(ChessGame.TeamColor perspective) {
+        if (currentGame == null) { waitingForBoard(); return; }
         ChessBoardDisplay.displayGame(currentGame, perspective);
     }
 
     public void highlight(ChessGame.TeamColor perspective, ChessPosition highlightThis) {
-        if (currentGame.validMoves(highlightThis) != null)
+        if (currentGame == null) { waitingForBoard(); }
+        else if (currentGame.validMoves(highlightThis) != null)
             ChessBoardDisplay.highlightGame(currentGame, perspective, highlightThis);
         else {
             System.out.println(EscapeSequences.RED + "You must select a space with a piece on it" + EscapeSequences.RESET);
@@ -69,6 +71,11 @@ public class WebSocketClient extends Endpoint {
         GameplayUI.printPrompt(username);
     }
 
+    // no LOAD_GAME yet, so there is no board to show
+    private void waitingForBoard() {
+        System.out.println(EscapeSequences.RED + "Waiting for the board from the server" + EscapeSequences.RESET);
+    }
+
     private void handler(String message) {
         ServerMessage msg = new Gson().fromJson(message, ServerMessage.class);
         switch (msg.getServerMessageType()) {
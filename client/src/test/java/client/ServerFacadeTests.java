@@ -169,10 +169,10 @@ public class ServerFacadeTests {
         gameResult = assertInstanceOf(CreateGameResponse.class, result);
         assertEquals(2, gameResult.gameID());
 
-        List<GameData> gameData = new ArrayList<>();
-        gameData.add(new GameData(1, null, null, "myNewGame", new ChessGame(), false));
-        gameData.add(new GameData(2, null, null, "mySecondGame", new ChessGame(), false));
-        GameList gameList = new GameList(gameData);
+        List<GameSummary> gameData = new ArrayList<>();
+        gameData.add(new GameSummary(1, null, null, "myNewGame", false));
+        gameData.add(new GameSummary(2, null, null, "mySecondGame", false));
+        GameSummaryList gameList = new GameSummaryList(gameData);
 
         Object list = serverFacade.listGames(firstUserAuth);
         assertNotNull(list);
@@ -191,10 +191,10 @@ public class ServerFacadeTests {
         gameResult = assertInstanceOf(CreateGameResponse.class, result);
         assertEquals(2, gameResult.gameID());
 
-        List<GameData> gameData = new ArrayList<>();
-        gameData.add(new GameData(1, null, null, "myNewGame", new ChessGame(), false));
-        gameData.add(new GameData(2, null, null, "mySecondGame", new ChessGame(), false));
-        GameList gameList = new GameList(gameData);
+        List<GameSummary> gameData = new ArrayList<>();
+        gameData.add(new GameSummary(1, null, null, "myNewGame", false));
+        gameData.add(new GameSummary(2, null, null, "mySecondGame", false));
+        GameSummaryList gameList = new GameSummaryList(gameData);
 
         String fakeToken = UUID.randomUUID().toString();
 
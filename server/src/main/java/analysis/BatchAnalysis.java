@@ -0,0 +1,193 @@
+package analysis;
+
+import chess.ChessGame;
+import chess.Move;
+import dataaccess.DataAccess;
+import dataaccess.DataAccessException;
+import dataaccess.MySQLDataAccess;
+import exception.ResponseException;
+import model.GameData;
+import model.GameQuery;
+import model.GameSummary;
+import model.GameSummaryList;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Offline job that analyzes every stored game in parallel and reports per-game statistics
+ * <p>
+ * Games are read a page at a time by id, and each one is handed to a {@link ForkJoinPool} (one worker per core unless
+ * told otherwise) as soon as it is loaded, so analysis starts with the first game and only a few games per worker are
+ * held in memory at once. Each game is walked on its own copy with one move buffer per ply, so workers share nothing
+ * and throughput grows with the core count.
+ * <p>
+ * Usage: {@code java -cp server.jar analysis.BatchAnalysis [depth] [threads] [--out report.txt]}
+ */
+public class BatchAnalysis {
+    // games read from storage per query
+    private static final int PAGE_SIZE = 100;
+    // games waiting on or being analyzed per worker before reading stops to let them finish
+    private static final int PENDING_PER_THREAD = 4;
+
+    private final int depth;
+    private final ForkJoinPool pool;
+
+    public BatchAnalysis(int depth, int parallelism) {
+        if (depth < 0) { throw new IllegalArgumentException("Depth cannot be negative"); }
+        this.depth = depth;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public BatchAnalysis(int depth) { this(depth, Runtime.getRuntime().availableProcessors()); }
+
+    public record Report(List<GameStats> games, long positions, long nanos, int threads) {
+        public double positionsPerSecond() { return positions / Math.max(nanos / 1e9, 1e-9); }
+    }
+
+    // pages through the stored games with the listing's keyset cursor, loading each board only when it is analyzed
+    public Report run(DataAccess dataAccess) throws DataAccessException {
+        Submissions submissions = new Submissions();
+        Integer after = null;
+        do {
+            GameSummaryList page = dataAccess.listGameSummaries(new GameQuery(after, PAGE_SIZE, null, null, null));
+            for (GameSummary summary : page.games()) { submissions.submit(dataAccess.getGame(summary.gameID())); }
+            after = page.next();
+        } while (after != null);
+        return submissions.report();
+    }
+
+    public Report run(List<GameData> games) {
+        Submissions submissions = new Submissions();
+        for (GameData game : games) { submissions.submit(game); }
+        return submissions.report();
+    }
+
+    public void shutdown() { pool.shutdown(); }
+
+    // games handed to the pool in the order they were read, oldest first
+    private class Submissions {
+        private final long start = System.nanoTime();
+        private final Deque<ForkJoinTask<GameStats>> pending = new ArrayDeque<>();
+        private final List<GameStats> stats = new ArrayList<>();
+
+        private void submit(GameData game) {
+            if (game == null || game.game() == null) { return; }
+            pending.addLast(pool.submit(() -> analyze(game)));
+            while (pending.size() > PENDING_PER_THREAD * pool.getParallelism()) { stats.add(pending.removeFirst().join()); }
+        }
+
+        private Report report() {
+            while (!pending.isEmpty()) { stats.add(pending.removeFirst().join()); }
+            long positions = 0;
+            for (GameStats game : stats) { positions += game.positions(); }
+            return new Report(stats, positions, System.nanoTime() - start, pool.getParallelism());
+        }
+    }
+
+    public GameStats analyze(GameData gameData) {
+        ChessGame game = new ChessGame(gameData.game());
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        ChessGame.GameStatus status = game.isInCheckmate(turn) ? ChessGame.GameStatus.CHECKMATE
+                : game.isInStalemate(turn) ? ChessGame.GameStatus.STALEMATE
+                : game.isInCheck(turn) ? ChessGame.GameStatus.CHECK
+                : ChessGame.GameStatus.NORMAL;
+
+        Walk walk = new Walk(game, depth);
+        walk.visit(0);
+        return new GameStats(gameData.gameID(), gameData.gameName(), walk.legalMoves, walk.checks, walk.checkmates,
+                walk.stalemates, status, walk.positions);
+    }
+
+    // depth-first walk of one game's legal move tree, counting as it goes
+    private static class Walk {
+        private final ChessGame game;
+        private final int depth;
+        private final int[][] moves;
+        private final long[] legalMoves;
+        private final long[] checks;
+        private final long[] checkmates;
+        private final long[] stalemates;
+        private long positions;
+
+        private Walk(ChessGame game, int depth) {
+            this.game = game;
+            this.depth = depth;
+            this.moves = new int[depth + 1][Move.MAX_MOVES];
+            this.legalMoves = new long[depth + 1];
+            this.checks = new long[depth + 1];
+            this.checkmates = new long[depth + 1];
+            this.stalemates = new long[depth + 1];
+        }
+
+        private void visit(int ply) {
+            positions++;
+            int[] list = moves[ply];
+            int count = game.generateLegalMoves(list);
+            boolean inCheck = game.isInCheck(game.getTeamTurn());
+            legalMoves[ply] += count;
+            if (inCheck) { checks[ply]++; }
+            if (count == 0) {
+                if (inCheck) { checkmates[ply]++; }
+                else { stalemates[ply]++; }
+            }
+            if (ply == depth) { return; }
+            for (int i = 0; i < count; i++) {
+                long undo = game.doMove(list[i]);
+                visit(ply + 1);
+                game.undoMove(undo);
+            }
+        }
+    }
+
+    public static void writeReport(Report report, PrintStream out) {
+        out.println("gameID\tgameName\tstatus\tpositions\tlegalMovesPerPly\tchecksPerPly\tcheckmatesPerPly\tstalematesPerPly");
+        for (GameStats game : report.games()) {
+            out.println(game.gameID() + "\t" + game.gameName() + "\t" + game.status() + "\t" + game.positions()
+                    + "\t" + join(game.legalMoves()) + "\t" + join(game.checks())
+                    + "\t" + join(game.checkmates()) + "\t" + join(game.stalemates()));
+        }
+        out.printf("%nGames: %d%nPositions: %d%nThreads: %d%nTime: %.3f s%nPositions/second: %.0f%n",
+                report.games().size(), report.positions(), report.threads(), report.nanos() / 1e9, report.positionsPerSecond());
+    }
+
+    private static String join(long[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) { sb.append(','); }
+            sb.append(values[i]);
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws DataAccessException, ResponseException, IOException {
+        int depth = 2;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path out = null;
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--out") && i + 1 < args.length) { out = Path.of(args[++i]); }
+            else { numbers.add(args[i]); }
+        }
+        if (!numbers.isEmpty()) { depth = Integer.parseInt(numbers.get(0)); }
+        if (numbers.size() > 1) { threads = Integer.parseInt(numbers.get(1)); }
+
+        BatchAnalysis analysis = new BatchAnalysis(depth, threads);
+        Report report = analysis.run(new MySQLDataAccess());
+        analysis.shutdown();
+        if (out == null) {
+            writeReport(report, System.out);
+        } else {
+            try (PrintStream stream = new PrintStream(Files.newOutputStream(out))) { writeReport(report, stream); }
+            System.out.printf("Wrote %d games to %s (%.0f positions/second)%n", report.games().size(), out, report.positionsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package analysis;
+
+import chess.ChessGame;
+
+/**
+ * What the batch analysis found for one stored game
+ * <p>
+ * Stored games keep only their current position, so the per-ply arrays describe the tree of legal play from that
+ * position: index 0 is the stored position itself, index n every position reachable in n moves.
+ *
+ * @param legalMoves  legal moves summed over the positions at each ply
+ * @param checks      positions at each ply where the side to move is in check
+ * @param checkmates  positions at each ply where the side to move is checkmated
+ * @param stalemates  positions at each ply where the side to move is stalemated
+ * @param status      status of the stored position for the team whose turn it is
+ * @param positions   total positions visited
+ */
+public record GameStats(int gameID, String gameName, long[] legalMoves, long[] checks, long[] checkmates,
+                        long[] stalemates, ChessGame.GameStatus status, long positions) {}
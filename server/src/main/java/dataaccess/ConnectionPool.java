@@ -0,0 +1,309 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of JDBC connections
+ * <p>
+ * At most {@code maxSize} connections are open at once; a caller that finds them all in use waits up to the acquire
+ * timeout and then gets an {@link SQLTimeoutException}. Connections idle for longer than the idle timeout are closed
+ * by a background thread, down to {@code minSize}, which the same thread keeps open. A connection that has sat idle
+ * for more than a second is validated before it is handed out, so one dropped by the server is replaced rather than
+ * failing the caller's query.
+ * <p>
+ * Callers close the connection they were given as usual, which returns it to the pool along with closing any
+ * statements made on it. A connection that reported a connection-level error (SQLState class 08) is discarded.
+ */
+public class ConnectionPool implements AutoCloseable {
+    // how long a connection may sit idle before it is validated on the way out
+    private static final long VALIDATE_AFTER_IDLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * @param minSize                  connections kept open even when idle
+     * @param maxSize                  connections open at most, idle or in use
+     * @param idleTimeoutMillis        idle time after which a connection above the minimum is closed
+     * @param acquireTimeoutMillis     longest a caller waits for a connection
+     * @param validationTimeoutSeconds timeout of the validity check made on idle connections
+     */
+    public record Config(int minSize, int maxSize, long idleTimeoutMillis, long acquireTimeoutMillis, int validationTimeoutSeconds) {
+        public Config {
+            if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+                throw new IllegalArgumentException("Pool sizes must satisfy 0 <= min <= max and max >= 1");
+            }
+            if (idleTimeoutMillis <= 0 || acquireTimeoutMillis < 0 || validationTimeoutSeconds < 0) {
+                throw new IllegalArgumentException("Pool timeouts cannot be negative");
+            }
+        }
+
+        public static Config defaults() { return new Config(2, 10, 60_000, 5_000, 2); }
+
+        // reads db.pool.* properties, using the defaults for any that are missing
+        public static Config from(Properties props) {
+            Config defaults = defaults();
+            return new Config(
+                    Integer.parseInt(props.getProperty("db.pool.minSize", Integer.toString(defaults.minSize()))),
+                    Integer.parseInt(props.getProperty("db.pool.maxSize", Integer.toString(defaults.maxSize()))),
+                    Long.parseLong(props.getProperty("db.pool.idleTimeoutMillis", Long.toString(defaults.idleTimeoutMillis()))),
+                    Long.parseLong(props.getProperty("db.pool.acquireTimeoutMillis", Long.toString(defaults.acquireTimeoutMillis()))),
+                    Integer.parseInt(props.getProperty("db.pool.validationTimeoutSeconds", Integer.toString(defaults.validationTimeoutSeconds()))));
+        }
+    }
+
+    /**
+     * Snapshot of the pool's size and how long callers have waited for connections
+     */
+    public record Stats(int open, int idle, long acquisitions, long timeouts, long totalWaitNanos, long maxWaitNanos) {
+        public int inUse() { return open - idle; }
+
+        public double averageWaitMillis() { return (acquisitions == 0) ? 0 : totalWaitNanos / 1e6 / acquisitions; }
+    }
+
+    private record IdleConnection(Connection connection, long since) {}
+
+    private final ConnectionFactory factory;
+    private final Config config;
+    private final Semaphore permits;
+    // most recently returned first, so the connections at the back are the ones that age out; guarded by this
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    // guarded by this
+    private int open;
+    private volatile boolean closed;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private final ScheduledExecutorService maintenance;
+
+    private ConnectionPool(ConnectionFactory factory, Config config) {
+        this.factory = factory;
+        this.config = config;
+        this.permits = new Semaphore(config.maxSize(), true);
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // creates a pool and starts its maintenance thread, which opens the minimum number of connections straight away;
+    // the thread is only handed the pool once it is fully constructed
+    public static ConnectionPool start(ConnectionFactory factory, Config config) {
+        ConnectionPool pool = new ConnectionPool(factory, config);
+        long period = Math.max(1_000, config.idleTimeoutMillis() / 4);
+        pool.maintenance.scheduleWithFixedDelay(pool::maintain, 0, period, TimeUnit.MILLISECONDS);
+        return pool;
+    }
+
+    /**
+     * Borrows a connection, opening one if none is idle and the pool is below its maximum
+     *
+     * @throws SQLTimeoutException if no connection became free within the acquire timeout
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) { throw new SQLException("Connection pool is closed"); }
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(config.acquireTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        long waited = System.nanoTime() - start;
+        if (!acquired) {
+            timeouts.increment();
+            throw new SQLTimeoutException("Timed out after " + config.acquireTimeoutMillis() + " ms waiting for a database connection");
+        }
+        acquisitions.increment();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+        try {
+            Connection connection = takeIdle();
+            return wrap((connection != null) ? connection : openConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public Stats getStats() {
+        synchronized (this) {
+            return new Stats(open, idle.size(), acquisitions.sum(), timeouts.sum(), totalWaitNanos.sum(), maxWaitNanos.get());
+        }
+    }
+
+    // closes idle connections past the idle timeout, then opens connections up to the minimum
+    void maintain() {
+        if (closed) { return; }
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(config.idleTimeoutMillis());
+        List<Connection> expired = new ArrayList<>();
+        synchronized (this) {
+            while (open > config.minSize() && !idle.isEmpty() && idle.peekLast().since() < cutoff) {
+                expired.add(idle.pollLast().connection());
+                open--;
+            }
+        }
+        expired.forEach(ConnectionPool::closeQuietly);
+
+        try {
+            while (!closed && reserveSlotBelowMinimum()) {
+                Connection connection;
+                try {
+                    connection = factory.open();
+                } catch (SQLException | RuntimeException e) {
+                    synchronized (this) { open--; }
+                    throw e;
+                }
+                synchronized (this) { idle.push(new IdleConnection(connection, System.nanoTime())); }
+            }
+        } catch (SQLException | RuntimeException e) {
+            // the database may be down; borrowers will see the error, and the next run tries again
+        }
+    }
+
+    private synchronized boolean reserveSlotBelowMinimum() {
+        if (open >= config.minSize()) { return false; }
+        open++;
+        return true;
+    }
+
+    // pops the most recently used idle connection, discarding any that fail validation
+    private Connection takeIdle() {
+        while (true) {
+            IdleConnection candidate;
+            synchronized (this) {
+                candidate = idle.poll();
+                if (candidate == null) { return null; }
+            }
+            if (System.nanoTime() - candidate.since() < VALIDATE_AFTER_IDLE_NANOS || isValid(candidate.connection())) {
+                return candidate.connection();
+            }
+            discard(candidate.connection());
+        }
+    }
+
+    private Connection openConnection() throws SQLException {
+        synchronized (this) { open++; }
+        try {
+            return factory.open();
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) { open--; }
+            throw e;
+        }
+    }
+
+    private boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(config.validationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // puts a connection back after its borrower closed it, or discards it if it cannot be reused
+    private void release(Connection connection, List<Statement> statements, boolean broken) {
+        try {
+            for (Statement statement : statements) { closeQuietly(statement); }
+            boolean reusable = !broken && !closed;
+            if (reusable) {
+                try {
+                    if (!connection.getAutoCommit()) {
+                        connection.rollback();
+                        connection.setAutoCommit(true);
+                    }
+                } catch (SQLException e) {
+                    reusable = false;
+                }
+            }
+            if (reusable) {
+                synchronized (this) { idle.push(new IdleConnection(connection, System.nanoTime())); }
+            } else {
+                discard(connection);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(Connection connection) {
+        synchronized (this) { open--; }
+        closeQuietly(connection);
+    }
+
+    // hands out a view of the connection whose close() returns it to the pool; using it after that is an error
+    private Connection wrap(Connection connection) {
+        List<Statement> statements = new ArrayList<>();
+        AtomicBoolean returned = new AtomicBoolean();
+        AtomicBoolean broken = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            if (returned.compareAndSet(false, true)) { release(connection, statements, broken.get()); }
+                            return null;
+                        }
+                        case "isClosed" -> {
+                            if (returned.get()) { return true; }
+                        }
+                        case "equals" -> { return proxy == args[0]; }
+                        case "hashCode" -> { return System.identityHashCode(proxy); }
+                        case "toString" -> { return "Pooled " + connection; }
+                        default -> {}
+                    }
+                    if (returned.get()) { throw new SQLException("Connection has already been returned to the pool"); }
+                    try {
+                        Object result = method.invoke(connection, args);
+                        if (result instanceof Statement statement) { statements.add(statement); }
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        if (e.getCause() instanceof SQLException sqlException && sqlException.getSQLState() != null
+                                && sqlException.getSQLState().startsWith("08")) {
+                            broken.set(true);
+                        }
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        maintenance.shutdownNow();
+        List<Connection> connections = new ArrayList<>();
+        synchronized (this) {
+            for (IdleConnection connection : idle) { connections.add(connection.connection()); }
+            open -= idle.size();
+            idle.clear();
+        }
+        connections.forEach(ConnectionPool::closeQuietly);
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+        }
+    }
+}
@@ -3,6 +3,7 @@ import exception.ResponseException;
 import model.*;
 
 import java.sql.SQLException;
+import java.util.function.UnaryOperator;
 
 public interface DataAccess {
     void addUser(UserData user) throws ResponseException, DataAccessException;
@@ -12,10 +13,35 @@ public interface DataAccess {
     AuthData getAuth(String authToken) throws DataAccessException, SQLException;
     void createGame(Integer gameID, GameData gameData) throws DataAccessException;
     GameData getGame(Integer gameID) throws DataAccessException;
+    // the game and its current version, or null if there is no such game
+    VersionedGame getVersionedGame(Integer gameID) throws DataAccessException;
+    // overwrites the game whatever its version; throws if there is no such game
     void updateGame(Integer gameID, GameData gameData) throws DataAccessException;
+    // overwrites the game only if it is still at the expected version; returns false if another update got in first
+    boolean updateGame(Integer gameID, GameData gameData, long expectedVersion) throws DataAccessException;
     GameList listGames() throws DataAccessException;
+    // games matching the query without their boards, in id order; a null limit returns every match on one page
+    GameSummaryList listGameSummaries(GameQuery query) throws DataAccessException;
 
     void deleteUserData() throws DataAccessException;
     void deleteAuthData() throws DataAccessException;
     void deleteGameData() throws DataAccessException;
+
+    /**
+     * Applies a change to the latest stored version of a game, re-reading and reapplying it if another update lands
+     * in between, so concurrent changes to the same game are never lost
+     *
+     * @param change computes the new game from the current one, or returns null to leave the game unchanged
+     * @return the game as written, or null if the change returned null
+     */
+    default GameData updateGame(Integer gameID, UnaryOperator<GameData> change) throws DataAccessException {
+        for (int attempt = 0; attempt < 8; attempt++) {
+            VersionedGame current = getVersionedGame(gameID);
+            if (current == null) { throw new DataAccessException("Error: game " + gameID + " not found"); }
+            GameData updated = change.apply(current.game());
+            if (updated == null) { return null; }
+            if (updateGame(gameID, updated, current.version())) { return updated; }
+        }
+        throw new DataAccessException("Error: game " + gameID + " kept changing while saving an update");
+    }
 }
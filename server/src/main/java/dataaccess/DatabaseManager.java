@@ -8,9 +8,13 @@ public class DatabaseManager {
     private static final String USER;
     private static final String PASSWORD;
     private static final String CONNECTION_URL;
+    private static final ConnectionPool.Config POOL_CONFIG;
+    // opened on first use, once createDatabase has made sure the catalog exists
+    private static ConnectionPool pool;
 
     /*
-     * Load the database information for the db.properties file.
+     * Load the database information for the db.properties file. Pool sizes and timeouts come from the optional
+     * db.pool.* properties; see ConnectionPool.Config.from.
      */
     static {
         try {
@@ -27,6 +31,7 @@ public class DatabaseManager {
                 var host = props.getProperty("db.host");
                 var port = Integer.parseInt(props.getProperty("db.port"));
                 CONNECTION_URL = String.format("jdbc:mysql://%s:%d", host, port);
+                POOL_CONFIG = ConnectionPool.Config.from(props);
             }
         } catch (Exception ex) {
             throw new RuntimeException("unable to process db.properties. " + ex.getMessage());
@@ -39,8 +44,8 @@ public class DatabaseManager {
     static void createDatabase() throws DataAccessException {
         try {
             var statement = "CREATE DATABASE IF NOT EXISTS " + DATABASE_NAME;
-            var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
-            try (var preparedStatement = conn.prepareStatement(statement)) {
+            try (var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
+                 var preparedStatement = conn.prepareStatement(statement)) {
                 preparedStatement.executeUpdate();
             }
         } catch (SQLException e) {
@@ -49,24 +54,35 @@ public class DatabaseManager {
     }
 
     /**
-     * Create a connection to the database and sets the catalog based upon the
-     * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
+     * Borrows a pooled connection to the database, with the catalog set from db.properties. Connections should be
+     * short-lived, and you must close the connection when you are done with it, which hands it back to the pool.
      * The easiest way to do that is with a try-with-resource block.
      * <br/>
      * <code>
-     * try (var conn = DbInfo.getConnection(databaseName)) {
+     * try (var conn = DatabaseManager.getConnection()) {
      * // execute SQL statements.
      * }
      * </code>
      */
     static Connection getConnection() throws DataAccessException {
         try {
-            var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
-            conn.setCatalog(DATABASE_NAME);
-            return conn;
+            return pool().getConnection();
         } catch (SQLException e) {
             throw new DataAccessException(e.getMessage());
         }
     }
+
+    // connection counts and wait times of the pool, for monitoring
+    public static ConnectionPool.Stats poolStats() { return pool().getStats(); }
+
+    private static synchronized ConnectionPool pool() {
+        if (pool == null) {
+            pool = ConnectionPool.start(() -> {
+                var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
+                conn.setCatalog(DATABASE_NAME);
+                return conn;
+            }, POOL_CONFIG);
+        }
+        return pool;
+    }
 }
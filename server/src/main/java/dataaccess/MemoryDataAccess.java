@@ -1,5 +1,6 @@
 package dataaccess;
 
+import chess.ChessGame;
 import model.*;
 
 import java.util.*;
@@ -8,7 +9,10 @@ public class MemoryDataAccess implements DataAccess{
 
     final private HashMap<String, UserData> users = new HashMap<>();
     final private HashMap<String, AuthData> auths = new HashMap<>();
-    final private HashMap<Integer, GameData> games = new HashMap<>();
+    // sorted by id so a page starts where the previous one ended, like the primary key in MySQL
+    final private TreeMap<Integer, VersionedGame> games = new TreeMap<>();
+    // ids of each player's games, standing in for the username indexes
+    final private TreeMap<String, TreeSet<Integer>> gamesByPlayer = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
 
     // USER FUNCTIONS
     public void addUser(UserData user) { users.put(user.username(), user); }
@@ -20,20 +24,84 @@ public class MemoryDataAccess implements DataAccess{
     public void deleteAuth(String authToken) { auths.remove(authToken); }
 
     // GAME FUNCTIONS
-    public void createGame(Integer gameID, GameData gameData) { games.putIfAbsent(gameID, gameData); }
-    public GameData getGame(Integer gameID) { return games.get(gameID); }
-    public void updateGame(Integer gameID, GameData game) { games.replace(gameID, game); }
-    public GameList listGames() {
+    // game functions are synchronized so that a versioned update's compare and replace happen together
+    public synchronized void createGame(Integer gameID, GameData gameData) {
+        if (!games.containsKey(gameID)) { store(gameID, new VersionedGame(copy(gameData), 0)); }
+    }
+    public synchronized GameData getGame(Integer gameID) {
+        VersionedGame stored = games.get(gameID);
+        return (stored == null) ? null : copy(stored.game());
+    }
+    public synchronized VersionedGame getVersionedGame(Integer gameID) {
+        VersionedGame stored = games.get(gameID);
+        return (stored == null) ? null : new VersionedGame(copy(stored.game()), stored.version());
+    }
+    public synchronized void updateGame(Integer gameID, GameData game) throws DataAccessException {
+        VersionedGame stored = games.get(gameID);
+        if (stored == null) { throw new DataAccessException("Error: game " + gameID + " not found"); }
+        store(gameID, new VersionedGame(copy(game), stored.version() + 1));
+    }
+    public synchronized boolean updateGame(Integer gameID, GameData game, long expectedVersion) {
+        VersionedGame stored = games.get(gameID);
+        if (stored == null || stored.version() != expectedVersion) { return false; }
+        store(gameID, new VersionedGame(copy(game), expectedVersion + 1));
+        return true;
+    }
+    public synchronized GameList listGames() {
         List<GameData> gameDataList = new ArrayList<>();
         for (Integer gameID : games.keySet()) {
-            gameDataList.add(games.get(gameID));
+            gameDataList.add(copy(games.get(gameID).game()));
         }
         return new GameList(gameDataList);
     }
+    public synchronized GameSummaryList listGameSummaries(GameQuery query) {
+        int after = (query.after() == null) ? 0 : query.after();
+        Iterable<Integer> candidates = (query.player() == null) ? games.tailMap(after, false).keySet()
+                : gamesByPlayer.getOrDefault(query.player(), new TreeSet<>()).tailSet(after, false);
+        List<GameSummary> summaries = new ArrayList<>();
+        for (Integer gameID : candidates) {
+            GameSummary summary = GameSummary.of(games.get(gameID).game());
+            if (!query.matches(summary)) { continue; }
+            if (query.limit() != null && summaries.size() == query.limit()) {
+                return new GameSummaryList(summaries, summaries.get(summaries.size() - 1).gameID());
+            }
+            summaries.add(summary);
+        }
+        return new GameSummaryList(summaries);
+    }
+
+    // games go in and out as copies, as they would through MySQL, so a caller changing its ChessGame cannot change the
+    // stored one before its versioned update is checked, or share it with another caller
+    private static GameData copy(GameData gameData) {
+        if (gameData == null || gameData.game() == null) { return gameData; }
+        return new GameData(gameData.gameID(), gameData.whiteUsername(), gameData.blackUsername(), gameData.gameName(),
+                new ChessGame(gameData.game()), gameData.finished());
+    }
+
+    private void store(Integer gameID, VersionedGame game) {
+        VersionedGame previous = games.put(gameID, game);
+        if (previous != null) {
+            unindex(previous.game().whiteUsername(), gameID);
+            unindex(previous.game().blackUsername(), gameID);
+        }
+        if (game.game().whiteUsername() != null) { gamesByPlayer.computeIfAbsent(game.game().whiteUsername(), name -> new TreeSet<>()).add(gameID); }
+        if (game.game().blackUsername() != null) { gamesByPlayer.computeIfAbsent(game.game().blackUsername(), name -> new TreeSet<>()).add(gameID); }
+    }
+
+    private void unindex(String player, Integer gameID) {
+        TreeSet<Integer> ids = (player == null) ? null : gamesByPlayer.get(player);
+        // already gone when the same player held both seats
+        if (ids == null) { return; }
+        ids.remove(gameID);
+        if (ids.isEmpty()) { gamesByPlayer.remove(player); }
+    }
 
     // CLEAR FUNCTIONS
     public void deleteUserData(){ users.clear(); }
     public void deleteAuthData(){ auths.clear(); }
-    public void deleteGameData(){ games.clear(); }
+    public synchronized void deleteGameData(){
+        games.clear();
+        gamesByPlayer.clear();
+    }
 
 }
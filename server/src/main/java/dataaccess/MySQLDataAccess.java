@@ -1,16 +1,28 @@
 package dataaccess;
 
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPieceAdapter;
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import exception.ResponseException;
 import model.AuthData;
 import model.GameData;
 import model.GameList;
+import model.GameQuery;
+import model.GameSummary;
+import model.GameSummaryList;
 import model.UserData;
 import org.eclipse.jetty.server.Authentication;
 
 import javax.xml.crypto.Data;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -19,6 +31,10 @@ import static java.sql.Statement.RETURN_GENERATED_KEYS;
 
 
 public class MySQLDataAccess implements DataAccess {
+    // Gson is thread-safe, so one instance serves every query; pieces read back as the shared ChessPiece instances
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(ChessPiece.class, new ChessPieceAdapter())
+            .create();
 
     public MySQLDataAccess() throws ResponseException, DataAccessException {
         configureDatabase();
@@ -85,27 +101,35 @@ public class MySQLDataAccess implements DataAccess {
             throw new DataAccessException(e.getMessage());
         }
     }
+    // the game's row and its board go in together, and the primary key turns a repeated id into a duplicate error
     public void createGame(Integer gameID, GameData gameData) throws DataAccessException {
-        if (getGame(gameID) != null) {
-            throw new DataAccessException("Duplicate game");
-        }
         try (var conn = DatabaseManager.getConnection()) {
-            var statement = conn.prepareStatement("INSERT INTO games (id, json) VALUES (?, ?)");
-            statement.setString(1, gameID.toString());
-            statement.setString(2, new Gson().toJson(gameData));
-            statement.executeUpdate();
+            conn.setAutoCommit(false);
+            try {
+                insertGame(conn, gameID, gameData, 0);
+                conn.commit();
+            } catch (SQLIntegrityConstraintViolationException e) {
+                conn.rollback();
+                throw new DataAccessException("Duplicate game");
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             throw new DataAccessException(e.getMessage());
         }
     }
     public GameData getGame(Integer gameID) throws DataAccessException {
-
+        VersionedGame stored = getVersionedGame(gameID);
+        return (stored == null) ? null : stored.game();
+    }
+    public VersionedGame getVersionedGame(Integer gameID) throws DataAccessException {
         try (var conn = DatabaseManager.getConnection()) {
-            var statement = conn.prepareStatement("SELECT * FROM games WHERE id = ?");
+            var statement = conn.prepareStatement("SELECT " + GAME_COLUMNS + ", g.version FROM games g JOIN game_boards b ON b.id = g.id WHERE g.id = ?");
             statement.setInt(1, gameID);
             ResultSet result = statement.executeQuery();
             if (result.next()) {
-                return new Gson().fromJson(result.getString("json"), GameData.class);
+                return new VersionedGame(readGame(result), result.getLong("version"));
             } else {
                 return null;
             }
@@ -113,31 +137,137 @@ public class MySQLDataAccess implements DataAccess {
             throw new DataAccessException(e.getMessage());
         }
     }
+    // one statement updates the row and its board together, so the write is atomic and costs one round trip
     public void updateGame(Integer gameID, GameData gameData) throws DataAccessException {
         try (var conn = DatabaseManager.getConnection()) {
-            var statement = conn.prepareStatement("DELETE FROM games WHERE id = ?");
-            statement.setString(1, Integer.toString(gameID));
-            statement.executeUpdate();
-            createGame(gameID, gameData);
+            var statement = conn.prepareStatement(UPDATE_GAME);
+            setUpdate(statement, gameID, gameData);
+            if (statement.executeUpdate() == 0) {
+                throw new DataAccessException("Error: game " + gameID + " not found");
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+    public boolean updateGame(Integer gameID, GameData gameData, long expectedVersion) throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            var statement = conn.prepareStatement(UPDATE_GAME + " AND g.version = ?");
+            setUpdate(statement, gameID, gameData);
+            statement.setLong(7, expectedVersion);
+            return statement.executeUpdate() > 0;
         } catch (SQLException e) {
             throw new DataAccessException(e.getMessage());
         }
     }
     public GameList listGames() throws DataAccessException {
         try (var conn = DatabaseManager.getConnection()) {
-            var statement = conn.prepareStatement("SELECT * FROM games");
+            var statement = conn.prepareStatement("SELECT " + GAME_COLUMNS + " FROM games g JOIN game_boards b ON b.id = g.id ORDER BY g.id");
             ResultSet result = statement.executeQuery();
             List<GameData> games = new ArrayList<>();
-            if (result.next()) {
-                do {
-                    games.add(new Gson().fromJson(result.getString("json"), GameData.class));
-                } while (result.next());
+            while (result.next()) {
+                games.add(readGame(result));
             }
             return new GameList(games);
         } catch (SQLException e) {
             throw new DataAccessException(e.getMessage());
         }
     }
+    // reads the games table alone: no join, no boards and no JSON parsing
+    public GameSummaryList listGameSummaries(GameQuery query) throws DataAccessException {
+        List<Object> parameters = new ArrayList<>();
+        String sql;
+        if (query.player() == null) {
+            sql = summaryQuery(query, null, parameters);
+        } else {
+            // one range scan per seat index, each already in id order, rather than an OR that falls back to the primary key
+            sql = "(" + summaryQuery(query, "whiteUsername", parameters) + ") UNION ("
+                    + summaryQuery(query, "blackUsername", parameters) + ") ORDER BY id";
+            if (query.limit() != null) {
+                sql += " LIMIT ?";
+                parameters.add(query.limit() + 1);
+            }
+        }
+        try (var conn = DatabaseManager.getConnection()) {
+            var statement = conn.prepareStatement(sql);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            ResultSet result = statement.executeQuery();
+            List<GameSummary> games = new ArrayList<>();
+            while (result.next()) {
+                // the extra row only says there is another page
+                if (query.limit() != null && games.size() == query.limit()) {
+                    return new GameSummaryList(games, games.get(games.size() - 1).gameID());
+                }
+                games.add(new GameSummary(result.getInt("id"), result.getString("whiteUsername"),
+                        result.getString("blackUsername"), result.getString("gameName"), result.getBoolean("finished")));
+            }
+            return new GameSummaryList(games);
+        } catch (SQLException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+    }
+
+    // keyset pagination: a page starts after the previous page's last id, so the index seeks straight to it and a deep
+    // page costs the same as the first, where an OFFSET would read and discard every row before it
+    private static String summaryQuery(GameQuery query, String seat, List<Object> parameters) {
+        StringBuilder sql = new StringBuilder("SELECT id, whiteUsername, blackUsername, gameName, finished FROM games WHERE id > ?");
+        parameters.add((query.after() == null) ? 0 : query.after());
+        if (seat != null) {
+            sql.append(" AND ").append(seat).append(" = ?");
+            parameters.add(query.player());
+        }
+        if (query.finished() != null) {
+            sql.append(" AND finished = ?");
+            parameters.add(query.finished());
+        }
+        if (query.open() != null) {
+            sql.append(query.open() ? " AND finished = FALSE AND (whiteUsername IS NULL OR blackUsername IS NULL)"
+                    : " AND (finished = TRUE OR (whiteUsername IS NOT NULL AND blackUsername IS NOT NULL))");
+        }
+        sql.append(" ORDER BY id");
+        if (query.limit() != null) {
+            sql.append(" LIMIT ?");
+            parameters.add(query.limit() + 1);
+        }
+        return sql.toString();
+    }
+
+    private static final String GAME_COLUMNS = "g.id, g.whiteUsername, g.blackUsername, g.gameName, g.finished, b.game";
+    // the row's match count is the same whether or not the values changed, so a version check alone decides success
+    private static final String UPDATE_GAME = """
+            UPDATE games g JOIN game_boards b ON b.id = g.id
+            SET g.whiteUsername = ?, g.blackUsername = ?, g.gameName = ?, g.finished = ?, b.game = ?, g.version = g.version + 1
+            WHERE g.id = ?""";
+
+    private static void setUpdate(PreparedStatement statement, Integer gameID, GameData gameData) throws SQLException {
+        statement.setString(1, gameData.whiteUsername());
+        statement.setString(2, gameData.blackUsername());
+        statement.setString(3, gameData.gameName());
+        statement.setBoolean(4, gameData.finished());
+        statement.setString(5, GSON.toJson(gameData.game()));
+        statement.setInt(6, gameID);
+    }
+
+    private static GameData readGame(ResultSet result) throws SQLException {
+        return new GameData(result.getInt("id"), result.getString("whiteUsername"), result.getString("blackUsername"),
+                result.getString("gameName"), GSON.fromJson(result.getString("game"), ChessGame.class), result.getBoolean("finished"));
+    }
+
+    private static void insertGame(Connection conn, Integer gameID, GameData gameData, long version) throws SQLException {
+        var row = conn.prepareStatement("INSERT INTO games (id, whiteUsername, blackUsername, gameName, finished, version) VALUES (?, ?, ?, ?, ?, ?)");
+        row.setInt(1, gameID);
+        row.setString(2, gameData.whiteUsername());
+        row.setString(3, gameData.blackUsername());
+        row.setString(4, gameData.gameName());
+        row.setBoolean(5, gameData.finished());
+        row.setLong(6, version);
+        row.executeUpdate();
+        var board = conn.prepareStatement("INSERT INTO game_boards (id, game) VALUES (?, ?)");
+        board.setInt(1, gameID);
+        board.setString(2, GSON.toJson(gameData.game()));
+        board.executeUpdate();
+    }
     public void deleteUserData() throws DataAccessException {
         try (var conn = DatabaseManager.getConnection()) {
             var statement = conn.prepareStatement("DELETE FROM users");
@@ -156,6 +286,7 @@ public class MySQLDataAccess implements DataAccess {
     }
     public void deleteGameData() throws DataAccessException {
         try (var conn = DatabaseManager.getConnection()) {
+            // boards go with their games through the foreign key
             var statement = conn.prepareStatement("DELETE FROM games");
             statement.executeUpdate();
         } catch (SQLException e) {
@@ -185,11 +316,28 @@ public class MySQLDataAccess implements DataAccess {
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
             """
             ,
+            // the listing columns only; boards live in game_boards so scanning games stays cheap
             """
             CREATE TABLE IF NOT EXISTS  games (
-              `id` int NOT NULL AUTO_INCREMENT,
-              `json` TEXT DEFAULT NULL,
-              INDEX(id)
+              `id` int NOT NULL,
+              `whiteUsername` varchar(256) DEFAULT NULL,
+              `blackUsername` varchar(256) DEFAULT NULL,
+              `gameName` varchar(256) DEFAULT NULL,
+              `finished` boolean NOT NULL DEFAULT FALSE,
+              `version` bigint NOT NULL DEFAULT 0,
+              PRIMARY KEY (`id`),
+              INDEX(whiteUsername),
+              INDEX(blackUsername),
+              INDEX(finished, id)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
+            """
+            ,
+            """
+            CREATE TABLE IF NOT EXISTS  game_boards (
+              `id` int NOT NULL,
+              `game` TEXT NOT NULL,
+              PRIMARY KEY (`id`),
+              FOREIGN KEY (`id`) REFERENCES games(`id`) ON DELETE CASCADE
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
             """
     };
@@ -197,13 +345,118 @@ public class MySQLDataAccess implements DataAccess {
     private void configureDatabase() throws DataAccessException, ResponseException {
         DatabaseManager.createDatabase();
         try (var conn = DatabaseManager.getConnection()) {
+            // a games table from before the split still holds each game as one JSON blob
+            if (columnExists(conn, "games", "json")) {
+                conn.prepareStatement("RENAME TABLE games TO games_legacy").executeUpdate();
+            }
             for (var statement : createStatements) {
                 try (var preparedStatement = conn.prepareStatement(statement)) {
                     preparedStatement.executeUpdate();
                 }
             }
+            if (tableExists(conn, "games_legacy")) {
+                migrateLegacyGames(conn);
+            }
         } catch (SQLException ex) {
             throw new ResponseException(String.format("Unable to configure database: %s", ex.getMessage()));
         }
     }
+
+    /**
+     * Copies games from the old single-blob table into games and game_boards, then renames it to a backup table
+     * rather than dropping it. The old table had no key, so an id that appears more than once keeps its
+     * highest-versioned row. A row whose JSON does not rebuild into a playable position is left out, and the reason
+     * is written to its migration_error column in the backup, which still holds every original row. Safe to rerun if
+     * interrupted.
+     */
+    private static void migrateLegacyGames(Connection conn) throws SQLException {
+        boolean versioned = columnExists(conn, "games_legacy", "version");
+        if (!columnExists(conn, "games_legacy", "migration_error")) {
+            conn.prepareStatement("ALTER TABLE games_legacy ADD COLUMN migration_error TEXT DEFAULT NULL").executeUpdate();
+        }
+        var select = conn.prepareStatement("SELECT id, json" + (versioned ? ", version" : ", 0 AS version")
+                + " FROM games_legacy ORDER BY id, version DESC");
+        var reject = conn.prepareStatement("UPDATE games_legacy SET migration_error = ? WHERE id = ?");
+        conn.setAutoCommit(false);
+        try {
+            conn.prepareStatement("DELETE FROM games").executeUpdate();
+            conn.prepareStatement("UPDATE games_legacy SET migration_error = NULL").executeUpdate();
+            ResultSet result = select.executeQuery();
+            int previousID = Integer.MIN_VALUE;
+            while (result.next()) {
+                int gameID = result.getInt("id");
+                if (gameID == previousID) { continue; }
+                previousID = gameID;
+                try {
+                    insertGame(conn, gameID, readLegacyGame(result.getString("json")), result.getLong("version"));
+                } catch (DataAccessException e) {
+                    reject.setString(1, e.getMessage());
+                    reject.setInt(2, gameID);
+                    reject.executeUpdate();
+                }
+            }
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+        String backup = tableExists(conn, "games_legacy_backup") ? "games_legacy_backup_" + System.currentTimeMillis() : "games_legacy_backup";
+        conn.prepareStatement("RENAME TABLE games_legacy TO " + backup).executeUpdate();
+    }
+
+    /**
+     * Reads a game stored as one JSON blob, in either the pre-bitboard or the bitboard board format (see
+     * ChessGameAdapter), and checks that it is a position play can continue from
+     *
+     * @throws DataAccessException if the JSON cannot be read or the position is not playable
+     */
+    static GameData readLegacyGame(String json) throws DataAccessException {
+        GameData gameData;
+        try {
+            gameData = GSON.fromJson(json, GameData.class);
+        } catch (RuntimeException e) {
+            // Gson's parse errors, and the enum and array lookups of the legacy reader
+            throw new DataAccessException("unreadable JSON: " + e.getMessage());
+        }
+        if (gameData == null || gameData.game() == null || gameData.game().getBoard() == null) {
+            throw new DataAccessException("no board");
+        }
+        ChessGame game = gameData.game();
+        ChessBoard board = game.getBoard();
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            if (Long.bitCount(board.getBitboard(color, ChessPiece.PieceType.KING)) != 1) {
+                throw new DataAccessException(color + " does not have exactly one king");
+            }
+            if ((board.getBitboard(color, ChessPiece.PieceType.PAWN) & (Bitboards.RANK_1 | Bitboards.RANK_8)) != 0) {
+                throw new DataAccessException(color + " has a pawn on the first or last rank");
+            }
+        }
+        if (game.isInCheck(game.getTeamTurn().opponent())) {
+            throw new DataAccessException(game.getTeamTurn().opponent() + " is in check but not to move");
+        }
+        return gameData;
+    }
+
+    private static boolean columnExists(Connection conn, String table, String column) throws SQLException {
+        var check = conn.prepareStatement("""
+                SELECT COUNT(*) FROM information_schema.COLUMNS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?
+                """);
+        check.setString(1, table);
+        check.setString(2, column);
+        ResultSet result = check.executeQuery();
+        return result.next() && result.getInt(1) > 0;
+    }
+
+    private static boolean tableExists(Connection conn, String table) throws SQLException {
+        var check = conn.prepareStatement("""
+                SELECT COUNT(*) FROM information_schema.TABLES
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?
+                """);
+        check.setString(1, table);
+        ResultSet result = check.executeQuery();
+        return result.next() && result.getInt(1) > 0;
+    }
 }
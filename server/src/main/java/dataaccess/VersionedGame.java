@@ -0,0 +1,8 @@
+package dataaccess;
+
+import model.GameData;
+
+/**
+ * A stored game along with the version of its row, which goes up by one with every update
+ */
+public record VersionedGame(GameData game, long version) {}
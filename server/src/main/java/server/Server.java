@@ -3,15 +3,25 @@ package server;
 import dataaccess.*;
 import exception.ResponseException;
 import model.*;
+import websocket.BotSeats;
 import websocket.WebSocketFacade;
 
 import service.Service;
 import spark.*;
 import com.google.gson.Gson;
-
+import chess.search.OpeningBook;
+import chess.search.Tablebase;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.Map;
 import java.util.SequencedMap;
+import java.util.zip.GZIPInputStream;
 
 
 public class Server {
@@ -21,7 +31,7 @@ public class Server {
     {
         try {
             dataAccess = new MySQLDataAccess();
-            webSocketFacade = new WebSocketFacade(dataAccess);
+            webSocketFacade = new WebSocketFacade(dataAccess, BotSeats.defaults(loadOpeningBook()), loadTablebase());
         } catch (ResponseException | DataAccessException e) {
             throw new RuntimeException(e);
         }
@@ -32,6 +42,53 @@ public class Server {
     public Server() {
     }
 
+    /**
+     * Maps the opening book named by the {@code chess.book} system property, or else builds one from the bundled
+     * openings.txt into a temporary file and maps that. The server runs without a book if neither can be loaded.
+     */
+    static OpeningBook loadOpeningBook() {
+        try {
+            String configured = System.getProperty("chess.book");
+            if (configured != null) { return OpeningBook.open(Path.of(configured)); }
+            try (InputStream lines = Server.class.getResourceAsStream("/openings.txt")) {
+                if (lines == null) { return null; }
+                Path file = Files.createTempFile("opening-book", ".bin");
+                file.toFile().deleteOnExit();
+                new OpeningBook.Builder().addLines(new InputStreamReader(lines, StandardCharsets.UTF_8), 16).write(file);
+                return OpeningBook.open(file);
+            }
+        } catch (IOException e) {
+            System.out.println("Opening book not loaded: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Loads the endgame tablebase from the file named by the {@code chess.tablebase} system property, or else from the
+     * prebuilt tablebase.bin.gz bundled with the server (made with {@code chess.search.Tablebase}'s main). Generating
+     * the tables takes a few seconds and tens of megabytes, so it only happens when asked: with
+     * {@code chess.tablebase.generate=true} and a configured file that does not exist yet, which the result is saved
+     * to. The server runs without adjudication if no tablebase can be loaded.
+     */
+    static Tablebase loadTablebase() {
+        try {
+            String configured = System.getProperty("chess.tablebase");
+            if (configured == null) {
+                try (InputStream bundled = Server.class.getResourceAsStream("/tablebase.bin.gz")) {
+                    return (bundled == null) ? null : Tablebase.read(new GZIPInputStream(bundled), "bundled tablebase.bin.gz");
+                }
+            }
+            Path file = Path.of(configured);
+            if (Files.exists(file) || !Boolean.getBoolean("chess.tablebase.generate")) { return Tablebase.load(file); }
+            Tablebase tablebase = Tablebase.generate();
+            tablebase.write(file);
+            return tablebase;
+        } catch (IOException e) {
+            System.out.println("Tablebase not loaded: " + e.getMessage());
+            return null;
+        }
+    }
+
     public int run(int desiredPort) {
         Spark.port(desiredPort);
 
@@ -139,8 +196,9 @@ public class Server {
             System.out.println("Something went wrong with getting gameID");
         }
         String playerColor = (String) (new Gson().fromJson(req.body(), Map.class)).get("playerColor");
+        String opponent = (String) (new Gson().fromJson(req.body(), Map.class)).get("opponent");
         System.out.println("\t" + authToken +"\n\t"+ playerColor +"\n\t"+ gameIDObject);
-        JoinGameReqeust joinGameReqeust = new JoinGameReqeust(authToken, playerColor, gameID);
+        JoinGameReqeust joinGameReqeust = new JoinGameReqeust(authToken, playerColor, gameID, opponent);
         var ret = service.joinGame(joinGameReqeust);
         if (ret.equals(Collections.emptyMap())){
             res.status(200);
@@ -156,8 +214,18 @@ public class Server {
 
     private Object listGames(Request req, Response res) throws DataAccessException {
         String authToken = req.headers("authorization");
-        var ret = service.listGames(authToken);
-        if (ret.equals(new ErrorResponse("Error: unauthorized"))){
+        GameQuery query;
+        try {
+            query = new GameQuery(intParam(req, "after"), intParam(req, "limit"), booleanParam(req, "open"),
+                    booleanParam(req, "finished"), req.queryParams("player"));
+        } catch (IllegalArgumentException e) {
+            res.status(400);
+            return new Gson().toJson(new ErrorResponse("Error: bad request"));
+        }
+        var ret = service.listGames(authToken, query);
+        if (ret.equals(new ErrorResponse("Error: bad request"))){
+            res.status(400);
+        } else if (ret.equals(new ErrorResponse("Error: unauthorized"))){
             res.status(401);
         } else {
             res.status(200);
@@ -165,6 +233,16 @@ public class Server {
         return new Gson().toJson(ret);
     }
 
+    // absent parameters are null; malformed ones throw IllegalArgumentException
+    private static Integer intParam(Request req, String name) {
+        String value = req.queryParams(name);
+        return (value == null) ? null : Integer.valueOf(value);
+    }
 
-
+    private static Boolean booleanParam(Request req, String name) {
+        String value = req.queryParams(name);
+        if (value == null) { return null; }
+        if (!value.equals("true") && !value.equals("false")) { throw new IllegalArgumentException(name + " must be true or false"); }
+        return Boolean.valueOf(value);
+    }
 }
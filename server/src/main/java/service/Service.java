@@ -7,6 +7,7 @@ import model.*;
 
 import dataaccess.DataAccess;
 import org.mindrot.jbcrypt.BCrypt;
+import websocket.BotSeats;
 
 import java.sql.SQLException;
 import java.util.Collections;
@@ -14,6 +15,10 @@ import java.util.UUID;
 
 
 public class Service {
+    // games per page of GET /game when the client does not say, and the most it may ask for
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final DataAccess dataAccess;
     int gameCount;
 
@@ -21,7 +26,7 @@ public class Service {
         this.dataAccess = dataAccess;
         gameCount = 0;
         try {
-            GameList tmpList = dataAccess.listGames();
+            GameSummaryList tmpList = dataAccess.listGameSummaries(GameQuery.all());
             for (int i = 0; i < tmpList.games().size(); i++) {
                 int gameNum = tmpList.games().get(i).gameID();
                 if (gameNum > gameCount) gameCount = gameNum;
@@ -36,6 +41,9 @@ public class Service {
             UserData result = this.dataAccess.getUser(user.username());
             if (user.username() == null || user.password() == null || user.email() == null) {
                 return new ErrorResponse("Error: bad request");
+            } else if (BotSeats.isReserved(user.username())) {
+                // the server plays every move of a game seated under a bot's name
+                return new ErrorResponse("Error: already taken");
             } else if (result != null && result.username().equals(user.username())) {
                 System.out.println("THIS HAPPENED: " + result.username() + " " + user.username());
                 return new ErrorResponse("Error: already taken");
@@ -120,25 +128,43 @@ public class Service {
             if (joinGameRequest.gameID() != null) System.out.println(joinGameRequest.gameID()); else System.out.println("id was null");
             return new ErrorResponse("Error: bad request");
         }
+        String opponent = joinGameRequest.opponent();
+        if (opponent != null && !BotSeats.isReserved(opponent)) {
+            return new ErrorResponse("Error: bad request");
+        }
+        // the seats are checked against the latest stored game, so two players joining at once cannot both take one;
+        // a bot opponent takes the other seat in the same update, and only if it is empty too
+        String username = auth.username();
         if (joinGameRequest.playerColor().equals("WHITE") || joinGameRequest.playerColor().equals("white")) {
-            if (game.whiteUsername() == null || game.whiteUsername().equals("null")) {
-                GameData newGame = new GameData(game.gameID(), auth.username(), game.blackUsername(), game.gameName(), game.game(), false);
-                this.dataAccess.updateGame(joinGameRequest.gameID(), newGame);
-            } else {
+            GameData joined = this.dataAccess.updateGame(joinGameRequest.gameID(), current ->
+                    (isOpen(current.whiteUsername()) && (opponent == null || isOpen(current.blackUsername())))
+                            ? new GameData(current.gameID(), username, (opponent == null) ? current.blackUsername() : opponent,
+                                    current.gameName(), current.game(), false)
+                            : null);
+            if (joined == null) {
                 return new ErrorResponse("Error: already taken");
             }
         } else if (joinGameRequest.playerColor().equals("BLACK") || joinGameRequest.playerColor().equals("black")) {
-            if (game.blackUsername() == null || game.blackUsername().equals("null")) {
-                GameData newGame = new GameData(game.gameID(), game.whiteUsername(), auth.username(), game.gameName(), game.game(), false);
-                this.dataAccess.updateGame(joinGameRequest.gameID(), newGame);
-            } else {
+            GameData joined = this.dataAccess.updateGame(joinGameRequest.gameID(), current ->
+                    (isOpen(current.blackUsername()) && (opponent == null || isOpen(current.whiteUsername())))
+                            ? new GameData(current.gameID(), (opponent == null) ? current.whiteUsername() : opponent, username,
+                                    current.gameName(), current.game(), false)
+                            : null);
+            if (joined == null) {
                 return new ErrorResponse("Error: already taken");
             }
         }
         return Collections.emptyMap();
     }
 
+    private static boolean isOpen(String seat) { return seat == null || seat.equals("null"); }
+
     public Object listGames(String authToken) throws DataAccessException {
+        return listGames(authToken, GameQuery.all());
+    }
+
+    // a query without a limit gets the default page size; asking for more than the maximum is a bad request
+    public Object listGames(String authToken, GameQuery query) throws DataAccessException {
         AuthData auth = null;
         try {
             auth = this.dataAccess.getAuth(authToken);
@@ -149,7 +175,14 @@ public class Service {
             System.out.println("This is what happened");
             return new ErrorResponse("Error: unauthorized");
         }
-        return this.dataAccess.listGames();
+        if ((query.limit() != null && (query.limit() < 1 || query.limit() > MAX_PAGE_SIZE))
+                || (query.after() != null && query.after() < 0)) {
+            return new ErrorResponse("Error: bad request");
+        }
+        if (query.limit() == null) {
+            query = new GameQuery(query.after(), DEFAULT_PAGE_SIZE, query.open(), query.finished(), query.player());
+        }
+        return this.dataAccess.listGameSummaries(query);
     }
 
     public Object clearDB() throws DataAccessException {
@@ -0,0 +1,113 @@
+package websocket;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.search.OpeningBook;
+import chess.search.Search;
+import chess.search.SearchLimits;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The computer players the server can seat in a game, and the worker pool their moves are searched on
+ * <p>
+ * A game whose white or black username is one of the bots' usernames has that side played by the server. Those
+ * usernames are reserved, so nobody can register them, and a bot only takes a seat when a player joins with it as
+ * their opponent. Searches
+ * run on a small pool of low-priority daemon threads with a bounded queue, so they cannot crowd out the threads
+ * handling human players. Each bot also has its own CPU budget: a time and node limit per move, and a cap on how many
+ * of its searches may be queued or running at once. Work past either bound is refused rather than queued.
+ * <p>
+ * While a game is still in the opening book, bots play a book move, chosen by weight, instead of searching.
+ */
+public class BotSeats {
+
+    /**
+     * @param username      name the bot sits under in GameData
+     * @param limits        search budget for each move
+     * @param maxConcurrent searches of this bot that may be queued or running at once
+     */
+    public record Bot(String username, SearchLimits limits, int maxConcurrent) {}
+
+    public static final Bot COMPUTER = new Bot("computer", SearchLimits.time(1000).withNodes(2_000_000), 4);
+    public static final Bot COMPUTER_EASY = new Bot("computer-easy", SearchLimits.depth(2).withNodes(50_000), 4);
+
+    private static final Set<String> RESERVED = Set.of(COMPUTER.username(), COMPUTER_EASY.username());
+
+    // whether the username belongs to one of the standard bots, and so may not be registered by a person
+    public static boolean isReserved(String username) { return username != null && RESERVED.contains(username); }
+
+    private final Map<String, Bot> bots = new HashMap<>();
+    private final Map<String, Semaphore> permits = new HashMap<>();
+    private final ThreadPoolExecutor workers;
+    // Search keeps killer and history tables, so each worker thread gets its own
+    private final ThreadLocal<Search> searches = ThreadLocal.withInitial(Search::new);
+    private final OpeningBook book;
+
+    public BotSeats(List<Bot> bots, int threads, int queueCapacity) { this(bots, threads, queueCapacity, null); }
+
+    // the book may be null, in which case every move is searched
+    public BotSeats(List<Bot> bots, int threads, int queueCapacity, OpeningBook book) {
+        this.book = book;
+        for (Bot bot : bots) {
+            this.bots.put(bot.username(), bot);
+            this.permits.put(bot.username(), new Semaphore(bot.maxConcurrent()));
+        }
+        AtomicInteger count = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "bot-worker-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.workers.allowCoreThreadTimeOut(true);
+    }
+
+    // the standard bots on half the machine's cores
+    public static BotSeats defaults() { return defaults(null); }
+
+    public static BotSeats defaults(OpeningBook book) {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BotSeats(List.of(COMPUTER, COMPUTER_EASY), threads, 64, book);
+    }
+
+    // the bot sitting under the username, or null if it belongs to a person
+    public Bot get(String username) { return (username == null) ? null : bots.get(username); }
+
+    /**
+     * Queues work for a bot within its budget
+     *
+     * @return false if the bot already has its maximum number of searches pending or the pool's queue is full
+     */
+    public boolean submit(Bot bot, Runnable task) {
+        Semaphore botPermits = permits.get(bot.username());
+        if (!botPermits.tryAcquire()) { return false; }
+        try {
+            workers.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    botPermits.release();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            botPermits.release();
+            return false;
+        }
+    }
+
+    // picks the bot's move for the side to move within its per-move budget, or null if there is none
+    public ChessMove chooseMove(Bot bot, ChessGame game) {
+        ChessMove bookMove = (book == null) ? null : book.randomMove(game, ThreadLocalRandom.current());
+        return (bookMove != null) ? bookMove : searches.get().bestMove(game, bot.limits());
+    }
+
+    public void shutdown() { workers.shutdownNow(); }
+}
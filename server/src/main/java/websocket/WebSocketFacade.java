@@ -4,17 +4,19 @@ import chess.ChessGame;
 import chess.ChessMove;
 import chess.ChessPiece;
 import chess.InvalidMoveException;
+import chess.search.Tablebase;
 import com.google.gson.Gson;
 import dataaccess.DataAccess;
 import dataaccess.DataAccessException;
+import dataaccess.VersionedGame;
 import model.AuthData;
 import model.GameData;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.annotations.*;
 import java.io.IOException;
 import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import websocket.commands.UserGameCommand;
 import websocket.messages.ServerMessage;
@@ -24,9 +26,19 @@ import static java.util.Objects.isNull;
 @WebSocket
 public class WebSocketFacade {
     DataAccess data;
-    public WebSocketFacade(DataAccess data) { this.data = data; }
+    private final BotSeats bots;
+    // adjudicates finished endgames; null if none is loaded
+    private final Tablebase tablebase;
+    public WebSocketFacade(DataAccess data) { this(data, BotSeats.defaults()); }
+    public WebSocketFacade(DataAccess data, BotSeats bots) { this(data, bots, null); }
+    public WebSocketFacade(DataAccess data, BotSeats bots, Tablebase tablebase) {
+        this.data = data;
+        this.bots = bots;
+        this.tablebase = tablebase;
+    }
 
-    private static HashMap<Session, ConnectionStruct> connections = new HashMap<>();
+    // bot moves are broadcast from worker threads, so the map must be safe to share
+    private static Map<Session, ConnectionStruct> connections = new ConcurrentHashMap<>();
 
     @OnWebSocketConnect
     public void onConnect(Session session) throws Exception {}
@@ -110,6 +122,7 @@ public class WebSocketFacade {
                 msg = new Gson().toJson(new NotificationStruct(ServerMessage.ServerMessageType.NOTIFICATION, authData.username() + " is observing the game"));
             System.out.println("From WebSocketFacade:connect(): " + msg);
             broadcast(authData.username(), msg, gameID, false);
+            playBotIfToMove(gameData);
         } catch (Exception e) {
             stupidExceptionDuplicate(e, session);
         }
@@ -134,7 +147,8 @@ public class WebSocketFacade {
         System.out.println("MAKE MOVE");
         // figure out if move is valid
         AuthData authData = this.data.getAuth(authToken);
-        GameData gameData = this.data.getGame(gameID);
+        VersionedGame stored = this.data.getVersionedGame(gameID);
+        GameData gameData = (stored == null) ? null : stored.game();
         ChessGame game = gameData.game();
 
         try {
@@ -155,43 +169,27 @@ public class WebSocketFacade {
             System.out.println(move);
             game.makeMove(move);
             System.out.println("done making move");
-            GameData updatedGameData = new GameData(gameData.gameID(), gameData.whiteUsername(), gameData.blackUsername(), gameData.gameName(), game, gameData.finished());
-            this.data.updateGame(gameID, updatedGameData);
+            // the move and any end of the game it brings are saved together, so nobody can move after a finished position
+            Outcome outcome = outcome(gameData, authData.username(), color.opponent());
+            GameData updatedGameData = new GameData(gameData.gameID(), gameData.whiteUsername(), gameData.blackUsername(), gameData.gameName(), game, outcome.over());
+            if (!this.data.updateGame(gameID, updatedGameData, stored.version())) {
+                // another move or seat change was saved since this game was read; show the mover where things stand
+                String msg = new Gson().toJson(new ErrorStruct(ServerMessage.ServerMessageType.ERROR, "Error: the game changed before your move was saved, please try again"));
+                session.getRemote().sendString(msg);
+                msg = new Gson().toJson(new LoadGameStruct(ServerMessage.ServerMessageType.LOAD_GAME, this.data.getGame(gameID).game()));
+                session.getRemote().sendString(msg);
+                return;
+            }
             // send load_game to all clients, with updated game
             String msg = new Gson().toJson(new LoadGameStruct(ServerMessage.ServerMessageType.LOAD_GAME, game));
             broadcast(authData.username(), msg, gameID, true);
             // broadcast notification informing what move was made
             ChessPiece piece = game.getBoard().getPiece(move.getEndPosition());
-            msg = new Gson().toJson(new NotificationStruct(ServerMessage.ServerMessageType.NOTIFICATION, authData.username() + " moved their " + piece.getPieceType().toString().toLowerCase() + " from " + makeChar(move.getStartPosition().getColumn()) + move.getStartPosition().getRow() + " to " + makeChar(move.getEndPosition().getColumn()) + move.getEndPosition().getRow()));
+            msg = new Gson().toJson(new NotificationStruct(ServerMessage.ServerMessageType.NOTIFICATION, describeMove(authData.username(), piece, move)));
             broadcast(authData.username(), msg, gameID, false);
             // if move results in check, checkmate or stalemate send a notification to all clients
-            color = (color == ChessGame.TeamColor.BLACK) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
-            String teamColor = (color == ChessGame.TeamColor.BLACK) ? "black" : "white";
-            boolean event = false;
-            if (game.isInStalemate(color)) {
-                event = true;
-                msg = new Gson().toJson(new NotificationStruct(ServerMessage.ServerMessageType.NOTIFICATION,
-                        "Move results in stalemate. The game is over."));
-                updatedGameData = new GameData(gameData.gameID(), gameData.whiteUsername(), gameData.blackUsername(),
-                        gameData.gameName(), game, true);
-                this.data.updateGame(gameID, updatedGameData);
-            } else if (game.isInCheckmate(color)) {
-                event = true;
-                String checkedUsername = (color == ChessGame.TeamColor.BLACK) ? gameData.blackUsername() : gameData.whiteUsername();
-                msg = new Gson().toJson(new NotificationStruct(ServerMessage.ServerMessageType.NOTIFICATION,
-                        "Move puts " + checkedUsername + " in checkmate. " + authData.username() + " has won the game."));
-                updatedGameData = new GameData(gameData.gameID(), gameData.whiteUsername(), gameData.blackUsername(),
-                        gameData.gameName(), game, true);
-                this.data.updateGame(gameID, updatedGameData);
-            } else if (game.isInCheck(color)) {
-                event = true;
-                String checkedUsername = (color == ChessGame.TeamColor.BLACK) ? gameData.blackUsername() : gameData.whiteUsername();
-                msg = new Gson().toJson(new NotificationStruct(ServerMessage.ServerMessageType.NOTIFICATION,
-                        "Move puts " + checkedUsername + " in check."));
-            }
-            if (event) {
-                broadcast(authData.username(), msg, gameID, true);
-            }
+            announce(outcome, authData.username(), gameID);
+            playBotIfToMove(updatedGameData);
         } catch (InvalidMoveException e) {
             if (e.getMessage().contains("over")) {
                 String msg = new Gson().toJson(new ErrorStruct(ServerMessage.ServerMessageType.ERROR, "Cannot move pieces: game is over"));
@@ -225,6 +223,104 @@ public class WebSocketFacade {
         }
     }
 
+    private String describeMove(String username, ChessPiece piece, ChessMove move) throws Exception {
+        return username + " moved their " + piece.getPieceType().toString().toLowerCase() + " from " + makeChar(move.getStartPosition().getColumn()) + move.getStartPosition().getRow() + " to " + makeChar(move.getEndPosition().getColumn()) + move.getEndPosition().getRow();
+    }
+
+    /**
+     * What a move did to the team now to move
+     *
+     * @param message notification for everyone in the game, or null if there is nothing to tell
+     * @param over    whether the move ended the game
+     */
+    private record Outcome(String message, boolean over) {}
+
+    // works out whether the move left the given team in check, checkmate or stalemate, or drawn by repetition or the
+    // fifty-move rule, including endgames the tablebase already knows the result of
+    private Outcome outcome(GameData gameData, String moverUsername, ChessGame.TeamColor color) {
+        ChessGame game = gameData.game();
+        ChessGame.GameStatus status = game.getGameStatus(color);
+        Tablebase.Wdl known = (tablebase != null && (status == ChessGame.GameStatus.NORMAL || status == ChessGame.GameStatus.CHECK))
+                ? tablebase.probe(game) : null;
+        String toMoveUsername = (color == ChessGame.TeamColor.BLACK) ? gameData.blackUsername() : gameData.whiteUsername();
+        if (known != null) {
+            // the result is already decided, so the game is closed out instead of being played to the end
+            String otherUsername = (color == ChessGame.TeamColor.BLACK) ? gameData.whiteUsername() : gameData.blackUsername();
+            return new Outcome(switch (known) {
+                case WIN -> "The endgame is a known win. " + toMoveUsername + " has won the game.";
+                case LOSS -> "The endgame is a known win. " + otherUsername + " has won the game.";
+                case DRAW -> "The endgame is a known draw. The game is a draw.";
+            }, true);
+        }
+        return switch (status) {
+            case STALEMATE -> new Outcome("Move results in stalemate. The game is over.", true);
+            case CHECKMATE -> new Outcome("Move puts " + toMoveUsername + " in checkmate. " + moverUsername + " has won the game.", true);
+            case THREEFOLD_REPETITION -> new Outcome("The same position has occurred three times. The game is a draw.", true);
+            case FIFTY_MOVE_RULE -> new Outcome("Fifty moves have passed without a capture or pawn move. The game is a draw.", true);
+            case CHECK -> new Outcome("Move puts " + toMoveUsername + " in check.", false);
+            default -> new Outcome(null, false);
+        };
+    }
+
+    private void announce(Outcome outcome, String moverUsername, int gameID) throws IOException {
+        if (outcome.message() == null) { return; }
+        String msg = new Gson().toJson(new NotificationStruct(ServerMessage.ServerMessageType.NOTIFICATION, outcome.message()));
+        broadcast(moverUsername, msg, gameID, true);
+    }
+
+    // hands the game to a bot worker if a bot holds the seat whose turn it is
+    private void playBotIfToMove(GameData gameData) throws IOException {
+        if (gameData == null || gameData.finished() || gameData.game() == null) { return; }
+        BotSeats.Bot bot = bots.get(seatToMove(gameData));
+        if (bot == null) { return; }
+        if (!bots.submit(bot, () -> botMove(bot, gameData.gameID()))) {
+            String msg = new Gson().toJson(new NotificationStruct(ServerMessage.ServerMessageType.NOTIFICATION,
+                    bot.username() + " is busy and will move when the game is next loaded"));
+            broadcast(bot.username(), msg, gameData.gameID(), true);
+        }
+    }
+
+    private static String seatToMove(GameData gameData) {
+        return (gameData.game().getTeamTurn() == ChessGame.TeamColor.WHITE) ? gameData.whiteUsername() : gameData.blackUsername();
+    }
+
+    // runs on a bot worker: reloads the game, plays the bot's move and tells everyone watching, as for a human move
+    private void botMove(BotSeats.Bot bot, int gameID) {
+        try {
+            VersionedGame stored = this.data.getVersionedGame(gameID);
+            GameData gameData = (stored == null) ? null : stored.game();
+            if (gameData == null || gameData.finished() || !bot.username().equals(seatToMove(gameData))) { return; }
+            ChessGame game = gameData.game();
+            ChessGame.TeamColor color = game.getTeamTurn();
+            ChessMove move = bots.chooseMove(bot, game);
+            if (move == null) { return; }
+            game.makeMove(move);
+            Outcome outcome = outcome(gameData, bot.username(), color.opponent());
+            GameData updatedGameData = new GameData(gameData.gameID(), gameData.whiteUsername(), gameData.blackUsername(), gameData.gameName(), game, outcome.over());
+            // the game moved on while the bot was thinking, e.g. a player resigned; its move no longer applies
+            if (!this.data.updateGame(gameID, updatedGameData, stored.version())) { return; }
+
+            String msg = new Gson().toJson(new LoadGameStruct(ServerMessage.ServerMessageType.LOAD_GAME, game));
+            broadcast(bot.username(), msg, gameID, true);
+            ChessPiece piece = game.getBoard().getPiece(move.getEndPosition());
+            msg = new Gson().toJson(new NotificationStruct(ServerMessage.ServerMessageType.NOTIFICATION, describeMove(bot.username(), piece, move)));
+            broadcast(bot.username(), msg, gameID, true);
+            announce(outcome, bot.username(), gameID);
+            // two bots only keep playing each other while someone is watching
+            if (connections.values().stream().anyMatch(connection -> connection.gameID() == gameID)) {
+                playBotIfToMove(updatedGameData);
+            }
+        } catch (Exception e) {
+            // nothing waits on the worker, so the players are told rather than left waiting on a bot that never moves
+            String msg = new Gson().toJson(new ErrorStruct(ServerMessage.ServerMessageType.ERROR,
+                    "Error: " + bot.username() + " could not make a move: " + e.getMessage()));
+            try {
+                broadcast(bot.username(), msg, gameID, true);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
     private void resign(String authToken, int gameID, Session session) throws SQLException, DataAccessException, IOException {
         System.out.println("RESIGN");
         AuthData authData = this.data.getAuth(authToken);
@@ -241,17 +337,15 @@ public class WebSocketFacade {
         try {
             String username = authData.username();
             if (username.equals(gameData.blackUsername())) {
-                GameData updatedGameData = new GameData(gameData.gameID(), gameData.whiteUsername(), null,
-                        gameData.gameName(), gameData.game(), true);
-                this.data.updateGame(gameID, updatedGameData);
+                this.data.updateGame(gameID, current -> new GameData(current.gameID(), current.whiteUsername(), null,
+                        current.gameName(), current.game(), true));
                 String msg = new Gson().toJson(new NotificationStruct(ServerMessage.ServerMessageType.NOTIFICATION,
                         username.concat(" has resigned from the game. The game is over.")));
                 broadcast(username, msg, gameID, true);
                 connections.remove(session);
             } else if (username.equals(gameData.whiteUsername())) {
-                GameData updatedGameData = new GameData(gameData.gameID(), null, gameData.blackUsername(),
-                        gameData.gameName(), gameData.game(), true);
-                this.data.updateGame(gameID, updatedGameData);
+                this.data.updateGame(gameID, current -> new GameData(current.gameID(), null, current.blackUsername(),
+                        current.gameName(), current.game(), true));
                 String msg = new Gson().toJson(new NotificationStruct(ServerMessage.ServerMessageType.NOTIFICATION,
                         username.concat(" has resigned from the game. The game is over.")));
                 broadcast(username, msg, gameID, true);
@@ -275,14 +369,12 @@ public class WebSocketFacade {
 
             if (username.equals(gameData.blackUsername())) {
                 System.out.println("\tblack");
-                GameData updatedGameData = new GameData(gameData.gameID(), gameData.whiteUsername(), null,
-                        gameData.gameName(), gameData.game(), gameData.finished());
-                this.data.updateGame(gameID, updatedGameData);
+                this.data.updateGame(gameID, current -> new GameData(current.gameID(), current.whiteUsername(), null,
+                        current.gameName(), current.game(), current.finished()));
             } else if (username.equals(gameData.whiteUsername())) {
                 System.out.println("\twhite");
-                GameData updatedGameData = new GameData(gameData.gameID(), null, gameData.blackUsername(),
-                        gameData.gameName(), gameData.game(), gameData.finished());
-                this.data.updateGame(gameID, updatedGameData);
+                this.data.updateGame(gameID, current -> new GameData(current.gameID(), null, current.blackUsername(),
+                        current.gameName(), current.game(), current.finished()));
             }
             String msg = new Gson().toJson(new NotificationStruct(ServerMessage.ServerMessageType.NOTIFICATION,
                     username.concat(" has left the game")));
@@ -0,0 +1,91 @@
+package analysis;
+
+import chess.ChessGame;
+import chess.Fen;
+import dataaccess.DataAccessException;
+import dataaccess.MemoryDataAccess;
+import model.GameData;
+import model.GameList;
+import model.GameQuery;
+import model.GameSummaryList;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchAnalysisTests {
+    private static final String FOOLS_MATE = "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3";
+
+    @Test
+    @DisplayName("Analyzes Every Stored Game")
+    public void analyzesEveryStoredGame() throws DataAccessException {
+        MemoryDataAccess dataAccess = new MemoryDataAccess();
+        for (int id = 1; id <= 9; id++) {
+            dataAccess.createGame(id, new GameData(id, null, null, "game" + id, new ChessGame(), false));
+        }
+        dataAccess.createGame(10, new GameData(10, null, null, "mated", Fen.parse(FOOLS_MATE), true));
+
+        BatchAnalysis analysis = new BatchAnalysis(2, 4);
+        BatchAnalysis.Report report = analysis.run(dataAccess);
+        analysis.shutdown();
+
+        assertEquals(10, report.games().size());
+        List<GameStats> games = report.games().stream().sorted(Comparator.comparingInt(GameStats::gameID)).toList();
+        GameStats opening = games.get(0);
+        assertArrayEquals(new long[]{20, 400, 8902}, opening.legalMoves());
+        assertEquals(1 + 20 + 400, opening.positions());
+        assertEquals(ChessGame.GameStatus.NORMAL, opening.status());
+
+        GameStats mated = games.get(9);
+        assertEquals(ChessGame.GameStatus.CHECKMATE, mated.status());
+        assertEquals(1, mated.checkmates()[0]);
+        assertEquals(1, mated.positions());
+        assertEquals(9 * 421 + 1, report.positions());
+    }
+
+    @Test
+    @DisplayName("Streams Games A Page At A Time")
+    public void streamsGamesByPage() throws DataAccessException {
+        List<GameQuery> queries = new ArrayList<>();
+        MemoryDataAccess dataAccess = new MemoryDataAccess() {
+            @Override
+            public synchronized GameList listGames() { throw new AssertionError("every game was loaded at once"); }
+
+            @Override
+            public synchronized GameSummaryList listGameSummaries(GameQuery query) {
+                queries.add(query);
+                return super.listGameSummaries(query);
+            }
+        };
+        for (int id = 1; id <= 250; id++) {
+            dataAccess.createGame(id, new GameData(id, null, null, "game" + id, new ChessGame(), false));
+        }
+
+        BatchAnalysis analysis = new BatchAnalysis(0, 2);
+        BatchAnalysis.Report report = analysis.run(dataAccess);
+        analysis.shutdown();
+
+        assertEquals(250, report.games().size());
+        assertEquals(250, report.positions());
+        assertEquals(Arrays.asList(null, 100, 200), queries.stream().map(GameQuery::after).toList());
+    }
+
+    @Test
+    @DisplayName("Report Lists Throughput")
+    public void reportListsThroughput() {
+        BatchAnalysis analysis = new BatchAnalysis(1, 1);
+        var report = analysis.run(List.of(new GameData(1, "a", "b", "only", new ChessGame(), false)));
+        analysis.shutdown();
+        var bytes = new ByteArrayOutputStream();
+        BatchAnalysis.writeReport(report, new PrintStream(bytes));
+        String text = bytes.toString();
+        assertTrue(text.contains("1\tonly\tNORMAL\t21\t20,400"), text);
+        assertTrue(text.contains("Positions/second:"), text);
+    }
+}
@@ -0,0 +1,167 @@
+package dataaccess;
+
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTests {
+    private final List<FakeConnection> opened = new ArrayList<>();
+    private ConnectionPool pool;
+
+    // just enough of a connection to tell whether the pool closed, validated or reused it
+    private static class FakeConnection {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final AtomicBoolean valid = new AtomicBoolean(true);
+        final AtomicInteger statementsClosed = new AtomicInteger();
+        final Connection connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> { closed.set(true); yield null; }
+                    case "isClosed" -> closed.get();
+                    case "isValid" -> valid.get();
+                    case "getAutoCommit" -> true;
+                    case "prepareStatement" -> Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                            new Class<?>[]{PreparedStatement.class}, (statement, statementMethod, statementArgs) -> {
+                                if (statementMethod.getName().equals("close")) { statementsClosed.incrementAndGet(); }
+                                return null;
+                            });
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    private ConnectionPool newPool(int min, int max, long idleTimeoutMillis, long acquireTimeoutMillis) {
+        pool = ConnectionPool.start(() -> {
+            FakeConnection fake = new FakeConnection();
+            synchronized (opened) { opened.add(fake); }
+            return fake.connection;
+        }, new ConnectionPool.Config(min, max, idleTimeoutMillis, acquireTimeoutMillis, 1));
+        return pool;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (pool != null) { pool.close(); }
+    }
+
+    @Test
+    @DisplayName("Reuses Returned Connections")
+    public void reusesConnections() throws SQLException {
+        newPool(0, 2, 60_000, 100);
+        try (Connection conn = pool.getConnection()) {
+            conn.prepareStatement("SELECT 1");
+        }
+        try (Connection conn = pool.getConnection()) {
+            assertFalse(conn.isClosed());
+        }
+        assertEquals(1, opened.size());
+        assertFalse(opened.get(0).closed.get());
+        assertEquals(1, opened.get(0).statementsClosed.get(), "statements should be closed when the connection is returned");
+
+        ConnectionPool.Stats stats = pool.getStats();
+        assertEquals(1, stats.open());
+        assertEquals(1, stats.idle());
+        assertEquals(0, stats.inUse());
+        assertEquals(2, stats.acquisitions());
+    }
+
+    @Test
+    @DisplayName("Closed Connection Cannot Be Used")
+    public void closedConnectionCannotBeUsed() throws SQLException {
+        newPool(0, 1, 60_000, 100);
+        Connection conn = pool.getConnection();
+        conn.close();
+        assertTrue(conn.isClosed());
+        assertThrows(SQLException.class, () -> conn.prepareStatement("SELECT 1"));
+        // closing twice must not hand the connection back twice
+        conn.close();
+        assertEquals(1, pool.getStats().idle());
+    }
+
+    @Test
+    @DisplayName("Times Out At Maximum Size")
+    public void timesOutAtMaximum() throws Exception {
+        newPool(0, 2, 60_000, 200);
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+        assertThrows(SQLTimeoutException.class, () -> pool.getConnection());
+        assertEquals(1, pool.getStats().timeouts());
+
+        // a caller blocked on a full pool gets the next connection returned, and its wait is recorded
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+                second.close();
+            } catch (InterruptedException | SQLException ignored) {
+            }
+        });
+        releaser.start();
+        try (Connection third = pool.getConnection()) {
+            assertNotNull(third);
+        }
+        releaser.join();
+        first.close();
+        assertEquals(2, opened.size());
+        assertTrue(pool.getStats().maxWaitNanos() >= 30_000_000L, "max wait " + pool.getStats().maxWaitNanos());
+        assertEquals(3, pool.getStats().acquisitions());
+    }
+
+    @Test
+    @DisplayName("Evicts Idle Connections Down To Minimum")
+    public void evictsIdleConnections() throws SQLException, InterruptedException {
+        newPool(1, 3, 20, 100);
+        Connection a = pool.getConnection();
+        Connection b = pool.getConnection();
+        Connection c = pool.getConnection();
+        a.close();
+        b.close();
+        c.close();
+        Thread.sleep(50);
+        pool.maintain();
+
+        assertEquals(1, pool.getStats().open());
+        long closed = opened.stream().filter(fake -> fake.closed.get()).count();
+        assertEquals(opened.size() - 1, closed);
+    }
+
+    @Test
+    @DisplayName("Replaces Invalid Idle Connection")
+    public void replacesInvalidConnection() throws SQLException, InterruptedException {
+        newPool(0, 1, 60_000, 100);
+        pool.getConnection().close();
+        opened.get(0).valid.set(false);
+        // idle long enough to be validated on the way out
+        Thread.sleep(1_100);
+        try (Connection conn = pool.getConnection()) {
+            assertNotNull(conn);
+        }
+        assertEquals(2, opened.size());
+        assertTrue(opened.get(0).closed.get());
+        assertEquals(1, pool.getStats().open());
+    }
+
+    @Test
+    @DisplayName("Reads Pool Properties")
+    public void readsProperties() {
+        var props = new java.util.Properties();
+        props.setProperty("db.pool.maxSize", "20");
+        props.setProperty("db.pool.acquireTimeoutMillis", "250");
+        ConnectionPool.Config config = ConnectionPool.Config.from(props);
+        assertEquals(20, config.maxSize());
+        assertEquals(250, config.acquireTimeoutMillis());
+        assertEquals(ConnectionPool.Config.defaults().minSize(), config.minSize());
+
+        props.setProperty("db.pool.minSize", "30");
+        assertThrows(IllegalArgumentException.class, () -> ConnectionPool.Config.from(props));
+    }
+}
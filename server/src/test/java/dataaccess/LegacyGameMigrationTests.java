@@ -0,0 +1,62 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import model.GameData;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LegacyGameMigrationTests {
+
+    // a game row as the single-blob games table stored it, with the board as a squares array; fourthRow, if given,
+    // replaces the board's fourth row
+    private static String legacyRow(ChessGame game, String fourthRow) {
+        StringBuilder json = new StringBuilder("{\"gameID\":7,\"whiteUsername\":\"white\",\"gameName\":\"old\",\"game\":{\"board\":{\"squares\":[");
+        for (int row = 1; row <= 8; row++) {
+            json.append((row > 1) ? ",[" : "[");
+            if (row == 4 && fourthRow != null) {
+                json.append(fourthRow).append("]");
+                continue;
+            }
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = game.getBoard().getPiece(new ChessPosition(row, col));
+                json.append((col > 1) ? "," : "").append((piece == null) ? "null"
+                        : "{\"type\":\"" + piece.getPieceType() + "\",\"color\":\"" + piece.getTeamColor() + "\"}");
+            }
+            json.append("]");
+        }
+        return json.append("]},\"currentTurn\":\"").append(game.getTeamTurn()).append("\"}}").toString();
+    }
+
+    @Test
+    @DisplayName("Rebuilds Legacy Boards")
+    public void rebuildsLegacyBoards() throws DataAccessException, InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 3), new ChessPosition(4, 6), null));
+
+        GameData migrated = MySQLDataAccess.readLegacyGame(legacyRow(game, null));
+        assertEquals(7, migrated.gameID());
+        assertEquals("white", migrated.whiteUsername());
+        assertEquals(game, migrated.game());
+        assertEquals(ChessGame.TeamColor.BLACK, migrated.game().getTeamTurn());
+        assertEquals(game.getZobristKey(), migrated.game().getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Rejects Unplayable Rows")
+    public void rejectsUnplayableRows() {
+        ChessGame game = new ChessGame();
+        String secondWhiteKing = "{\"type\":\"KING\",\"color\":\"WHITE\"},null,null,null,null,null,null,null";
+        DataAccessException twoKings = assertThrows(DataAccessException.class, () -> MySQLDataAccess.readLegacyGame(legacyRow(game, secondWhiteKing)));
+        assertTrue(twoKings.getMessage().contains("king"), twoKings.getMessage());
+        assertThrows(DataAccessException.class, () -> MySQLDataAccess.readLegacyGame("{\"gameID\":7,\"game\":{\"board\":{\"squares\":[[null]]}}}"));
+        assertThrows(DataAccessException.class, () -> MySQLDataAccess.readLegacyGame("{\"gameID\":7,\"gameName\":\"no board\"}"));
+        assertThrows(DataAccessException.class, () -> MySQLDataAccess.readLegacyGame("not json"));
+    }
+}
@@ -0,0 +1,147 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import model.GameData;
+import model.GameQuery;
+import model.GameSummary;
+import model.GameSummaryList;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoryDataAccessTests {
+    private MemoryDataAccess dataAccess;
+
+    @BeforeEach
+    public void setUp() {
+        dataAccess = new MemoryDataAccess();
+        dataAccess.createGame(1, new GameData(1, null, null, "game", new ChessGame(), false));
+    }
+
+    @Test
+    @DisplayName("Versioned Update Rejects Stale Version")
+    public void rejectsStaleVersion() throws DataAccessException {
+        VersionedGame stored = dataAccess.getVersionedGame(1);
+        GameData first = new GameData(1, "white", null, "game", new ChessGame(), false);
+        assertTrue(dataAccess.updateGame(1, first, stored.version()));
+        assertFalse(dataAccess.updateGame(1, new GameData(1, null, "black", "game", new ChessGame(), false), stored.version()));
+        assertEquals(new VersionedGame(first, stored.version() + 1), dataAccess.getVersionedGame(1));
+        assertFalse(dataAccess.updateGame(2, first, 0), "missing game");
+    }
+
+    @Test
+    @DisplayName("Callers Get Their Own Copy Of The Game")
+    public void callersGetCopies() throws Exception {
+        VersionedGame stored = dataAccess.getVersionedGame(1);
+        assertTrue(dataAccess.updateGame(1, stored.game(), stored.version()), "claim the version the mover read");
+        // a move made on the fetched game and then refused for its stale version must not reach the store
+        stored.game().game().makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        assertFalse(dataAccess.updateGame(1, stored.game(), stored.version()));
+        assertEquals(new ChessGame(), dataAccess.getGame(1).game());
+        assertNotSame(dataAccess.getGame(1).game(), dataAccess.getGame(1).game());
+    }
+
+    @Test
+    @DisplayName("Summaries Are In Id Order")
+    public void summariesInIdOrder() {
+        dataAccess.createGame(12, new GameData(12, "white", "black", "later", new ChessGame(), true));
+        dataAccess.createGame(3, new GameData(3, null, "black", "earlier", new ChessGame(), false));
+        assertEquals(new GameSummaryList(List.of(
+                new GameSummary(1, null, null, "game", false),
+                new GameSummary(3, null, "black", "earlier", false),
+                new GameSummary(12, "white", "black", "later", true))), dataAccess.listGameSummaries(GameQuery.all()));
+    }
+
+    @Test
+    @DisplayName("Pages Through Games By Id")
+    public void pagesById() {
+        for (int id = 2; id <= 7; id++) {
+            dataAccess.createGame(id, new GameData(id, null, null, "game" + id, new ChessGame(), id % 2 == 0));
+        }
+        GameSummaryList first = dataAccess.listGameSummaries(new GameQuery(null, 3, null, null, null));
+        assertEquals(List.of(1, 2, 3), first.games().stream().map(GameSummary::gameID).toList());
+        assertEquals(3, first.next());
+        GameSummaryList second = dataAccess.listGameSummaries(new GameQuery(first.next(), 3, null, null, null));
+        assertEquals(List.of(4, 5, 6), second.games().stream().map(GameSummary::gameID).toList());
+        GameSummaryList last = dataAccess.listGameSummaries(new GameQuery(second.next(), 3, null, null, null));
+        assertEquals(List.of(7), last.games().stream().map(GameSummary::gameID).toList());
+        assertNull(last.next());
+
+        // a full last page still has no next page
+        assertNull(dataAccess.listGameSummaries(new GameQuery(4, 3, null, null, null)).next());
+        GameSummaryList finished = dataAccess.listGameSummaries(new GameQuery(null, 2, null, true, null));
+        assertEquals(List.of(2, 4), finished.games().stream().map(GameSummary::gameID).toList());
+        assertEquals(4, finished.next());
+    }
+
+    @Test
+    @DisplayName("Filters By Player And Open Seats")
+    public void filtersByPlayerAndOpenSeats() throws DataAccessException {
+        dataAccess.createGame(2, new GameData(2, "alice", "bob", "full", new ChessGame(), false));
+        dataAccess.createGame(3, new GameData(3, null, "Alice", "waiting", new ChessGame(), false));
+        dataAccess.createGame(4, new GameData(4, "alice", null, "abandoned", new ChessGame(), true));
+
+        GameQuery alice = new GameQuery(null, null, null, null, "ALICE");
+        assertEquals(List.of(2, 3, 4), dataAccess.listGameSummaries(alice).games().stream().map(GameSummary::gameID).toList());
+        GameQuery open = new GameQuery(null, null, true, null, null);
+        assertEquals(List.of(1, 3), dataAccess.listGameSummaries(open).games().stream().map(GameSummary::gameID).toList());
+        GameQuery notOpen = new GameQuery(null, null, false, null, null);
+        assertEquals(List.of(2, 4), dataAccess.listGameSummaries(notOpen).games().stream().map(GameSummary::gameID).toList());
+
+        // the player index follows seat changes
+        dataAccess.updateGame(3, new GameData(3, "carol", null, "waiting", new ChessGame(), false));
+        dataAccess.updateGame(2, new GameData(2, "alice", "alice", "full", new ChessGame(), false));
+        assertEquals(List.of(2, 4), dataAccess.listGameSummaries(alice).games().stream().map(GameSummary::gameID).toList());
+        assertEquals(List.of(3), dataAccess.listGameSummaries(new GameQuery(null, null, null, null, "carol"))
+                .games().stream().map(GameSummary::gameID).toList());
+        assertTrue(dataAccess.listGameSummaries(new GameQuery(null, null, null, null, "bob")).games().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Concurrent Changes Are Not Lost")
+    public void concurrentChangesNotLost() throws InterruptedException {
+        // each thread takes one seat, re-reading the game whenever the other thread's update got in first
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (String color : List.of("white", "black")) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 200; i++) {
+                        String name = color + i;
+                        dataAccess.updateGame(1, current -> color.equals("white")
+                                ? new GameData(1, name, current.blackUsername(), current.gameName(), current.game(), false)
+                                : new GameData(1, current.whiteUsername(), name, current.gameName(), current.game(), false));
+                    }
+                } catch (Throwable t) {
+                    synchronized (failures) { failures.add(t); }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) { thread.join(); }
+
+        assertTrue(failures.isEmpty(), failures.toString());
+        VersionedGame stored = dataAccess.getVersionedGame(1);
+        assertEquals("white199", stored.game().whiteUsername());
+        assertEquals("black199", stored.game().blackUsername());
+        assertEquals(400, stored.version());
+    }
+
+    @Test
+    @DisplayName("Change Can Decline To Update")
+    public void changeCanDecline() throws DataAccessException {
+        assertNull(dataAccess.updateGame(1, current -> null));
+        assertEquals(0, dataAccess.getVersionedGame(1).version());
+        assertThrows(DataAccessException.class, () -> dataAccess.updateGame(5, current -> current));
+    }
+}
@@ -5,6 +5,9 @@ import exception.ResponseException;
 import model.AuthData;
 import model.GameData;
 import model.GameList;
+import model.GameQuery;
+import model.GameSummary;
+import model.GameSummaryList;
 import model.UserData;
 import org.eclipse.jetty.server.Authentication;
 import org.junit.jupiter.api.*;
@@ -180,6 +183,37 @@ public class SQLDataAccessTests {
         assertEquals(dataAccess.getGame(1), updatedGame);
     }
 
+    @Test
+    @DisplayName("updateGame Negative")
+    public void updateGameNegativeTest() throws ResponseException, DataAccessException {
+        GameData missingGame = new GameData(1, null, "black", "game", new ChessGame(), false);
+        assertThrows(DataAccessException.class, () -> dataAccess.updateGame(1, missingGame));
+        assertNull(dataAccess.getGame(1));
+    }
+
+    @Test
+    @DisplayName("versioned updateGame Positive")
+    public void versionedUpdateGamePositiveTest() throws ResponseException, DataAccessException {
+        dataAccess.createGame(1, new GameData(1, null, null, "game", new ChessGame(), false));
+        VersionedGame stored = dataAccess.getVersionedGame(1);
+        GameData updatedGame = new GameData(1, "white", null, "game", new ChessGame(), false);
+        assertTrue(dataAccess.updateGame(1, updatedGame, stored.version()));
+        assertEquals(new VersionedGame(updatedGame, stored.version() + 1), dataAccess.getVersionedGame(1));
+    }
+
+    @Test
+    @DisplayName("versioned updateGame Negative")
+    public void versionedUpdateGameNegativeTest() throws ResponseException, DataAccessException {
+        dataAccess.createGame(1, new GameData(1, null, null, "game", new ChessGame(), false));
+        VersionedGame stored = dataAccess.getVersionedGame(1);
+        GameData first = new GameData(1, "white", null, "game", new ChessGame(), false);
+        GameData second = new GameData(1, null, "black", "game", new ChessGame(), false);
+        assertTrue(dataAccess.updateGame(1, first, stored.version()));
+        // the second writer read the same version, so its update must not overwrite the first
+        assertFalse(dataAccess.updateGame(1, second, stored.version()));
+        assertEquals(first, dataAccess.getGame(1));
+    }
+
     @Test
     @DisplayName("listGame Positive")
     public void listGamePositiveTest() throws ResponseException, DataAccessException {
@@ -209,6 +243,45 @@ public class SQLDataAccessTests {
         assertEquals(list, gameList);
     }
 
+    @Test
+    @DisplayName("listGameSummaries Positive")
+    public void listGameSummariesPositiveTest() throws DataAccessException {
+        dataAccess.createGame(2, new GameData(2, null, "black", "second", new ChessGame(), true));
+        dataAccess.createGame(1, new GameData(1, "white", null, "first", new ChessGame(), false));
+
+        GameSummaryList expected = new GameSummaryList(List.of(
+                new GameSummary(1, "white", null, "first", false),
+                new GameSummary(2, null, "black", "second", true)));
+        assertEquals(expected, dataAccess.listGameSummaries(GameQuery.all()));
+    }
+
+    @Test
+    @DisplayName("listGameSummaries Pages And Filters")
+    public void listGameSummariesPagesTest() throws DataAccessException {
+        dataAccess.createGame(1, new GameData(1, "white", null, "first", new ChessGame(), false));
+        dataAccess.createGame(2, new GameData(2, "white", "black", "second", new ChessGame(), false));
+        dataAccess.createGame(3, new GameData(3, "black", "white", "third", new ChessGame(), true));
+        dataAccess.createGame(4, new GameData(4, null, null, "fourth", new ChessGame(), false));
+
+        GameSummaryList page = dataAccess.listGameSummaries(new GameQuery(null, 2, null, null, null));
+        assertEquals(List.of(1, 2), page.games().stream().map(GameSummary::gameID).toList());
+        assertEquals(2, page.next());
+        page = dataAccess.listGameSummaries(new GameQuery(page.next(), 2, null, null, null));
+        assertEquals(List.of(3, 4), page.games().stream().map(GameSummary::gameID).toList());
+        assertNull(page.next());
+
+        page = dataAccess.listGameSummaries(new GameQuery(null, 2, null, null, "WHITE"));
+        assertEquals(List.of(1, 2), page.games().stream().map(GameSummary::gameID).toList());
+        page = dataAccess.listGameSummaries(new GameQuery(page.next(), 2, null, null, "WHITE"));
+        assertEquals(List.of(3), page.games().stream().map(GameSummary::gameID).toList());
+        assertNull(page.next());
+
+        page = dataAccess.listGameSummaries(new GameQuery(null, null, true, null, null));
+        assertEquals(List.of(1, 4), page.games().stream().map(GameSummary::gameID).toList());
+        page = dataAccess.listGameSummaries(new GameQuery(null, null, null, true, "black"));
+        assertEquals(List.of(3), page.games().stream().map(GameSummary::gameID).toList());
+    }
+
     @Test
     @DisplayName("deleteGameData Positive")
     public void deleteGameDataPositiveTest() throws ResponseException, DataAccessException {
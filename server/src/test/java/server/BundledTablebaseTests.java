@@ -0,0 +1,51 @@
+package server;
+
+import chess.Fen;
+import chess.search.Tablebase;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BundledTablebaseTests {
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    public void clearProperties() {
+        System.clearProperty("chess.tablebase");
+        System.clearProperty("chess.tablebase.generate");
+    }
+
+    @Test
+    @DisplayName("Bundled Tablebase Matches Generated Tables")
+    public void bundledMatchesGenerated() throws IOException {
+        Tablebase bundled = Server.loadTablebase();
+        assertNotNull(bundled, "tablebase.bin.gz should be on the classpath");
+        // rebuild the resource with chess.search.Tablebase's main if this fails after a change to the generator
+        Path fromBundle = dir.resolve("bundled.bin");
+        Path fromGenerator = dir.resolve("generated.bin");
+        bundled.write(fromBundle);
+        Tablebase.generate().write(fromGenerator);
+        assertEquals(-1, Files.mismatch(fromBundle, fromGenerator));
+    }
+
+    @Test
+    @DisplayName("Generates Configured Tablebase Only When Asked")
+    public void generatesOnlyWhenAsked() {
+        Path file = dir.resolve("tablebase.bin.gz");
+        System.setProperty("chess.tablebase", file.toString());
+        assertNull(Server.loadTablebase(), "a missing file is not generated by default");
+        assertFalse(Files.exists(file));
+
+        System.setProperty("chess.tablebase.generate", "true");
+        Tablebase generated = Server.loadTablebase();
+        assertNotNull(generated);
+        assertTrue(Files.exists(file));
+        assertEquals(Tablebase.Wdl.LOSS, generated.probe(Fen.parse("R5k1/8/6K1/8/8/8/8/8 b - - 0 1")));
+    }
+}
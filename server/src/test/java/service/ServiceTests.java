@@ -3,6 +3,7 @@ import chess.ChessGame;
 import dataaccess.*;
 import exception.ResponseException;
 import model.*;
+import websocket.BotSeats;
 import org.junit.jupiter.api.*;
 
 import java.util.ArrayList;
@@ -184,10 +185,10 @@ public class ServiceTests {
         gameResult = assertInstanceOf(CreateGameResponse.class, result);
         assertEquals(2, gameResult.gameID());
 
-        List<GameData> gameData = new ArrayList<>();
-        gameData.add(new GameData(1, null, null, "myNewGame", new ChessGame(), false));
-        gameData.add(new GameData(2, null, null, "mySecondGame", new ChessGame(), false));
-        GameList gameList = new GameList(gameData);
+        List<GameSummary> gameData = new ArrayList<>();
+        gameData.add(new GameSummary(1, null, null, "myNewGame", false));
+        gameData.add(new GameSummary(2, null, null, "mySecondGame", false));
+        GameSummaryList gameList = new GameSummaryList(gameData);
 
         Object list = service.listGames(firstUserAuth);
         assertNotNull(list);
@@ -210,10 +211,10 @@ public class ServiceTests {
         gameResult = assertInstanceOf(CreateGameResponse.class, result);
         assertEquals(2, gameResult.gameID());
 
-        List<GameData> gameData = new ArrayList<>();
-        gameData.add(new GameData(1, null, null, "myNewGame", new ChessGame(), false));
-        gameData.add(new GameData(2, null, null, "mySecondGame", new ChessGame(), false));
-        GameList gameList = new GameList(gameData);
+        List<GameSummary> gameData = new ArrayList<>();
+        gameData.add(new GameSummary(1, null, null, "myNewGame", false));
+        gameData.add(new GameSummary(2, null, null, "mySecondGame", false));
+        GameSummaryList gameList = new GameSummaryList(gameData);
         String fakeToken = UUID.randomUUID().toString();
 
         Object list = service.listGames(fakeToken);
@@ -221,4 +222,68 @@ public class ServiceTests {
         ErrorResponse errorResult = assertInstanceOf(ErrorResponse.class, list);
         assertEquals("Error: unauthorized", errorResult.message());
     }
+
+    @Test
+    @Order(14)
+    @DisplayName("listGames: Pages And Filters")
+    public void testListGamesPages() throws DataAccessException {
+        for (int i = 1; i <= 5; i++) {
+            service.createGame(new CreateGameRequest("game" + i, firstUserAuth));
+        }
+        service.joinGame(new JoinGameReqeust(firstUserAuth, "WHITE", 2));
+
+        GameSummaryList page = assertInstanceOf(GameSummaryList.class, service.listGames(firstUserAuth, new GameQuery(null, 2, null, null, null)));
+        assertEquals(List.of(1, 2), page.games().stream().map(GameSummary::gameID).toList());
+        page = assertInstanceOf(GameSummaryList.class, service.listGames(firstUserAuth, new GameQuery(page.next(), 2, null, null, null)));
+        assertEquals(List.of(3, 4), page.games().stream().map(GameSummary::gameID).toList());
+        page = assertInstanceOf(GameSummaryList.class, service.listGames(firstUserAuth, new GameQuery(page.next(), 2, null, null, null)));
+        assertEquals(List.of(5), page.games().stream().map(GameSummary::gameID).toList());
+        assertNull(page.next());
+
+        page = assertInstanceOf(GameSummaryList.class, service.listGames(firstUserAuth, new GameQuery(null, null, null, null, "firstUser")));
+        assertEquals(List.of(new GameSummary(2, "firstUser", null, "game2", false)), page.games());
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("listGames: Bad Page")
+    public void testListGamesBadPage() throws DataAccessException {
+        Object result = service.listGames(firstUserAuth, new GameQuery(null, 0, null, null, null));
+        assertEquals(new ErrorResponse("Error: bad request"), result);
+        result = service.listGames(firstUserAuth, new GameQuery(null, Service.MAX_PAGE_SIZE + 1, null, null, null));
+        assertEquals(new ErrorResponse("Error: bad request"), result);
+        result = service.listGames(firstUserAuth, new GameQuery(-1, null, null, null, null));
+        assertEquals(new ErrorResponse("Error: bad request"), result);
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("registerUser: Bot Names Reserved")
+    public void testRegisterBotName() throws ResponseException, DataAccessException {
+        for (String name : List.of(BotSeats.COMPUTER.username(), BotSeats.COMPUTER_EASY.username())) {
+            Object result = service.registerUser(new UserData(name, "password", "bot@example.com"));
+            assertEquals(new ErrorResponse("Error: already taken"), result, name + " should not be registrable");
+        }
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("joinGame: Bot Opponent")
+    public void testJoinGameBotOpponent() throws DataAccessException {
+        service.createGame(new CreateGameRequest("vsComputer", firstUserAuth));
+        Object joinResult = service.joinGame(new JoinGameReqeust(firstUserAuth, "BLACK", 1, BotSeats.COMPUTER.username()));
+        assertEquals(Collections.emptyMap(), joinResult);
+        GameSummaryList list = assertInstanceOf(GameSummaryList.class, service.listGames(firstUserAuth));
+        assertEquals(List.of(new GameSummary(1, "computer", "firstUser", "vsComputer", false)), list.games());
+
+        // the opponent must be a bot, and its seat must be free
+        service.createGame(new CreateGameRequest("second", firstUserAuth));
+        assertEquals(new ErrorResponse("Error: bad request"),
+                service.joinGame(new JoinGameReqeust(firstUserAuth, "WHITE", 2, "someone")));
+        service.joinGame(new JoinGameReqeust(firstUserAuth, "BLACK", 2));
+        assertEquals(new ErrorResponse("Error: already taken"),
+                service.joinGame(new JoinGameReqeust(firstUserAuth, "WHITE", 2, BotSeats.COMPUTER_EASY.username())));
+        list = assertInstanceOf(GameSummaryList.class, service.listGames(firstUserAuth));
+        assertEquals(new GameSummary(2, null, "firstUser", "second", false), list.games().get(1));
+    }
 }
@@ -0,0 +1,93 @@
+package websocket;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Fen;
+import chess.search.OpeningBook;
+import chess.search.SearchLimits;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BotSeatsTests {
+    private static final BotSeats.Bot BOT = new BotSeats.Bot("testbot", SearchLimits.depth(2), 1);
+    private BotSeats bots;
+
+    @BeforeEach
+    public void setup() {
+        bots = new BotSeats(List.of(BOT), 1, 4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bots.shutdown();
+    }
+
+    @Test
+    @DisplayName("Recognizes Bot Seats")
+    public void recognizesBotSeats() {
+        assertEquals(BOT, bots.get("testbot"));
+        assertNull(bots.get("someone"));
+        assertNull(bots.get(null));
+    }
+
+    @Test
+    @DisplayName("Chooses Legal Move")
+    public void choosesLegalMove() {
+        ChessGame game = new ChessGame();
+        ChessMove move = bots.chooseMove(BOT, game);
+        assertNotNull(move);
+        assertTrue(game.validMoves(move.getStartPosition()).contains(move));
+    }
+
+    @Test
+    @DisplayName("Enforces Per-Bot Limit")
+    public void enforcesPerBotLimit() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        assertTrue(bots.submit(BOT, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+            finished.countDown();
+        }));
+        assertFalse(bots.submit(BOT, () -> {}), "bot should be at its concurrency limit");
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        // the permit is returned once the task finishes
+        boolean accepted = false;
+        for (int i = 0; i < 100 && !accepted; i++) {
+            accepted = bots.submit(BOT, () -> {});
+            if (!accepted) { Thread.sleep(10); }
+        }
+        assertTrue(accepted);
+    }
+
+    @Test
+    @DisplayName("Plays From Bundled Opening Book")
+    public void playsFromBundledOpeningBook() throws IOException {
+        Path file = Files.createTempFile("opening-book", ".bin");
+        try (var lines = getClass().getResourceAsStream("/openings.txt")) {
+            assertNotNull(lines);
+            new OpeningBook.Builder().addLines(new InputStreamReader(lines, StandardCharsets.UTF_8), 16).write(file);
+        }
+        BotSeats bookBots = new BotSeats(List.of(BOT), 1, 4, OpeningBook.open(file));
+        try {
+            String move = Fen.moveName(bookBots.chooseMove(BOT, new ChessGame()));
+            assertTrue(List.of("e2e4", "d2d4", "c2c4", "g1f3").contains(move), move);
+        } finally {
+            bookBots.shutdown();
+            file.toFile().deleteOnExit();
+        }
+    }
+}
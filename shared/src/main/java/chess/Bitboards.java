@@ -0,0 +1,97 @@
+package chess;
+
+/**
+ * Square numbering and precomputed attack tables shared by the bitboard engine
+ * <p>
+ * Square {@code (row - 1) * 8 + (col - 1)} maps to bit of the same index, so a1 is bit 0 and h8 is bit 63.
+ */
+public final class Bitboards {
+    private Bitboards() {}
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    // squares a knight / king standing on the index square can move to
+    static final long[] KNIGHT_ATTACKS = new long[64];
+    static final long[] KING_ATTACKS = new long[64];
+    // squares a pawn of the given team standing on the index square captures on, indexed [team ordinal][square]
+    static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    private static final int[][] KNIGHT_STEPS = {{2, 1}, {1, 2}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}, {1, -2}, {2, -1}};
+    private static final int[][] KING_STEPS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+    static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    static {
+        for (int sq = 0; sq < 64; sq++) {
+            KNIGHT_ATTACKS[sq] = steps(sq, KNIGHT_STEPS);
+            KING_ATTACKS[sq] = steps(sq, KING_STEPS);
+            PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][sq] = steps(sq, new int[][]{{1, 1}, {1, -1}});
+            PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][sq] = steps(sq, new int[][]{{-1, 1}, {-1, -1}});
+        }
+    }
+
+    private static long steps(int sq, int[][] deltas) {
+        long targets = 0L;
+        for (int[] delta : deltas) {
+            int row = rowOf(sq) + delta[0];
+            int col = columnOf(sq) + delta[1];
+            if (row >= 1 && row <= 8 && col >= 1 && col <= 8) { targets |= 1L << square(row, col); }
+        }
+        return targets;
+    }
+
+    // returns the square index for a 1-indexed row and column
+    public static int square(int row, int col) { return (row - 1) * 8 + (col - 1); }
+
+    public static int square(ChessPosition position) { return square(position.getRow(), position.getColumn()); }
+
+    // returns the 1-indexed row of a square index
+    public static int rowOf(int sq) { return (sq >>> 3) + 1; }
+
+    // returns the 1-indexed column of a square index
+    public static int columnOf(int sq) { return (sq & 7) + 1; }
+
+    public static long knightAttacks(int sq) { return KNIGHT_ATTACKS[sq]; }
+
+    public static long kingAttacks(int sq) { return KING_ATTACKS[sq]; }
+
+    public static long pawnAttacks(ChessGame.TeamColor color, int sq) { return PAWN_ATTACKS[color.ordinal()][sq]; }
+
+    public static long rookAttacks(int sq, long occupied) { return slide(sq, occupied, ROOK_DIRECTIONS); }
+
+    public static long bishopAttacks(int sq, long occupied) { return slide(sq, occupied, BISHOP_DIRECTIONS); }
+
+    public static long queenAttacks(int sq, long occupied) { return rookAttacks(sq, occupied) | bishopAttacks(sq, occupied); }
+
+    // squares a piece attacks from a square; for pawns this is the capture pattern only
+    public static long attacks(ChessPiece.PieceType type, ChessGame.TeamColor color, int sq, long occupied) {
+        return switch (type) {
+            case KING -> KING_ATTACKS[sq];
+            case QUEEN -> queenAttacks(sq, occupied);
+            case BISHOP -> bishopAttacks(sq, occupied);
+            case KNIGHT -> KNIGHT_ATTACKS[sq];
+            case ROOK -> rookAttacks(sq, occupied);
+            case PAWN -> PAWN_ATTACKS[color.ordinal()][sq];
+        };
+    }
+
+    // walks each ray until it leaves the board or hits an occupied square, which is included in the result
+    private static long slide(int sq, long occupied, int[][] directions) {
+        long targets = 0L;
+        for (int[] direction : directions) {
+            int row = rowOf(sq) + direction[0];
+            int col = columnOf(sq) + direction[1];
+            while (row >= 1 && row <= 8 && col >= 1 && col <= 8) {
+                long bit = 1L << square(row, col);
+                targets |= bit;
+                if ((occupied & bit) != 0) { break; }
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return targets;
+    }
+}
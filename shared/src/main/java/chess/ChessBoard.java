@@ -1,85 +1,211 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Arrays;
-import java.util.Objects;
 
+@JsonAdapter(ChessBoardAdapter.class)
 public class ChessBoard {
-    private ChessPiece[][] squares = new ChessPiece[8][8];
+    // castling right bits
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE;
+
+    // one bitboard per (team, piece type), see Bitboards for the square numbering
+    private final long[] pieces = new long[12];
+    private ChessGame.TeamColor sideToMove = ChessGame.TeamColor.WHITE;
+    private int castlingRights;
+    private int enPassantSquare = -1;
+    // Zobrist key of the pieces alone, updated on every placement and removal; derived from pieces, so not serialized
+    private transient long pieceKey;
+    // material and piece-square score of the pieces, positive for white, updated alongside pieceKey
+    private transient int pieceSquareScore;
+
     public ChessBoard() {}
 
+    public ChessBoard(ChessBoard other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        this.sideToMove = other.sideToMove;
+        this.castlingRights = other.castlingRights;
+        this.enPassantSquare = other.enPassantSquare;
+        this.pieceKey = other.pieceKey;
+        this.pieceSquareScore = other.pieceSquareScore;
+    }
+
+    // bitboard slot for a team and piece type
+    public static int index(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow() - 1][position.getColumn() - 1] = piece;
+        int sq = Bitboards.square(position);
+        if (piece == null) {
+            clearSquare(sq);
+        } else {
+            setPiece(sq, index(piece.getTeamColor(), piece.getPieceType()));
+        }
     }
 
     public ChessPiece getPiece(ChessPosition position) {
-        return squares[position.getRow() - 1][position.getColumn() - 1];
+        int slot = pieceIndexAt(Bitboards.square(position));
+        return (slot < 0) ? null : ChessPiece.of(slot);
     }
 
-    public void resetBoard() {
-        // emptying board
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                squares[i][j] = null;
+    // places the piece for a bitboard slot on a square, replacing whatever was there
+    public void setPiece(int sq, int slot) {
+        clearSquare(sq);
+        putPiece(sq, slot);
+    }
+
+    // fast paths for callers that already know which bitboard slot is involved
+    public void putPiece(int sq, int slot) {
+        pieces[slot] |= 1L << sq;
+        pieceKey ^= Zobrist.pieceKey(slot, sq);
+        pieceSquareScore += Evaluation.pieceSquare(slot, sq);
+    }
+
+    public void removePiece(int sq, int slot) {
+        pieces[slot] &= ~(1L << sq);
+        pieceKey ^= Zobrist.pieceKey(slot, sq);
+        pieceSquareScore -= Evaluation.pieceSquare(slot, sq);
+    }
+
+    public void clearSquare(int sq) {
+        int slot = pieceIndexAt(sq);
+        if (slot >= 0) { removePiece(sq, slot); }
+    }
+
+    // returns the bitboard slot of the piece on a square, or -1 if it is empty
+    public int pieceIndexAt(int sq) {
+        long bit = 1L << sq;
+        for (int i = 0; i < pieces.length; i++) {
+            if ((pieces[i] & bit) != 0) { return i; }
+        }
+        return -1;
+    }
+
+    public ChessPiece pieceAt(int sq) {
+        int slot = pieceIndexAt(sq);
+        return (slot < 0) ? null : ChessPiece.of(slot);
+    }
+
+    public long getBitboard(ChessGame.TeamColor color, ChessPiece.PieceType type) { return pieces[index(color, type)]; }
+
+    public long getOccupancy(ChessGame.TeamColor color) {
+        int base = color.ordinal() * 6;
+        return pieces[base] | pieces[base + 1] | pieces[base + 2] | pieces[base + 3] | pieces[base + 4] | pieces[base + 5];
+    }
+
+    public long getOccupancy() {
+        return getOccupancy(ChessGame.TeamColor.WHITE) | getOccupancy(ChessGame.TeamColor.BLACK);
+    }
+
+    // returns the square of the team's king, or -1 if it has none
+    public int kingSquare(ChessGame.TeamColor color) {
+        long king = pieces[index(color, ChessPiece.PieceType.KING)];
+        return (king == 0) ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+    // returns true if any piece of the attacking team could capture on the square, looking outward from it
+    public boolean isSquareAttacked(int sq, ChessGame.TeamColor attacker) {
+        int base = attacker.ordinal() * 6;
+        if ((Bitboards.KNIGHT_ATTACKS[sq] & pieces[base + ChessPiece.PieceType.KNIGHT.ordinal()]) != 0) { return true; }
+        if ((Bitboards.KING_ATTACKS[sq] & pieces[base + ChessPiece.PieceType.KING.ordinal()]) != 0) { return true; }
+        // an attacking pawn sits where a defending pawn on this square would capture
+        if ((Bitboards.PAWN_ATTACKS[attacker.opponent().ordinal()][sq] & pieces[base + ChessPiece.PieceType.PAWN.ordinal()]) != 0) { return true; }
+
+        long queens = pieces[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        long straight = pieces[base + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+        long diagonal = pieces[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+        if (straight == 0 && diagonal == 0) { return false; }
+        long occupied = getOccupancy();
+        return ((straight != 0) && (Bitboards.rookAttacks(sq, occupied) & straight) != 0)
+                || ((diagonal != 0) && (Bitboards.bishopAttacks(sq, occupied) & diagonal) != 0);
+    }
+
+    // 64-bit Zobrist key of the whole position: pieces, side to move, castling rights and en passant square
+    public long getZobristKey() {
+        return pieceKey ^ Zobrist.stateKey(sideToMove, castlingRights, enPassantSquare);
+    }
+
+    // material and piece-square part of the evaluation, positive for white; see Evaluation
+    public int getPieceSquareScore() { return pieceSquareScore; }
+
+    public ChessGame.TeamColor getSideToMove() { return sideToMove; }
+
+    public void setSideToMove(ChessGame.TeamColor color) { this.sideToMove = color; }
+
+    public int getCastlingRights() { return castlingRights; }
+
+    public void setCastlingRights(int rights) { this.castlingRights = rights; }
+
+    // returns the square a pawn may capture onto en passant, or -1 if there is none
+    public int getEnPassantSquare() { return enPassantSquare; }
+
+    public void setEnPassantSquare(int sq) { this.enPassantSquare = sq; }
+
+    // works out the piece key and piece-square score from scratch, for boards whose bitboards were filled in directly
+    void recomputeDerivedState() {
+        pieceKey = 0L;
+        pieceSquareScore = 0;
+        for (int slot = 0; slot < pieces.length; slot++) {
+            for (long bits = pieces[slot]; bits != 0; bits &= bits - 1) {
+                pieceKey ^= Zobrist.pieceKey(slot, Long.numberOfTrailingZeros(bits));
+                pieceSquareScore += Evaluation.pieceSquare(slot, Long.numberOfTrailingZeros(bits));
             }
         }
+    }
 
-        // setting board
+    public void resetBoard() {
+        Arrays.fill(pieces, 0L);
         // WHITE TEAM
-        // pawns
-        for (int i = 0; i < 8; i++) {
-            squares[1][i] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
-        }
-        // rooks
-        squares[0][0] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
-        squares[0][7] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
-        // knights
-        squares[0][1] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
-        squares[0][6] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
-        // bishops
-        squares[0][2] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
-        squares[0][5] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
-        // queen
-        squares[0][3] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
-        // king
-        squares[0][4] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
-
-        // BLACK TEAM
-        // black pawns
-        for (int i = 0; i < 8; i++) {
-            squares[6][i] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
-        }
-        // rooks
-        squares[7][0] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
-        squares[7][7] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
-        // knights
-        squares[7][1] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
-        squares[7][6] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
-        // bishops
-        squares[7][2] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
-        squares[7][5] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
-        // king
-        squares[7][4] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
-        // queen
-        squares[7][3] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
+        pieces[index(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN)] = Bitboards.RANK_1 << 8;
+        pieces[index(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK)] = 0x81L;
+        pieces[index(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT)] = 0x42L;
+        pieces[index(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP)] = 0x24L;
+        pieces[index(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN)] = 0x08L;
+        pieces[index(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING)] = 0x10L;
+        // BLACK TEAM, mirrored onto rows 7 and 8
+        pieces[index(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN)] = Bitboards.RANK_1 << 48;
+        pieces[index(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK)] = 0x81L << 56;
+        pieces[index(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT)] = 0x42L << 56;
+        pieces[index(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP)] = 0x24L << 56;
+        pieces[index(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN)] = 0x08L << 56;
+        pieces[index(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING)] = 0x10L << 56;
+        recomputeDerivedState();
+
+        sideToMove = ChessGame.TeamColor.WHITE;
+        castlingRights = ALL_CASTLING;
+        enPassantSquare = -1;
     }
 
     @Override
     public String toString() {
-        return "ChessBoard{" +
-                "squares=" + Arrays.toString(squares) +
-                "}\n";
+        StringBuilder sb = new StringBuilder("ChessBoard{\n");
+        for (int row = 8; row >= 1; row--) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = pieceAt(Bitboards.square(row, col));
+                sb.append('|').append((piece == null) ? ' ' : piece.toChar());
+            }
+            sb.append("|\n");
+        }
+        return sb.append("}\n").toString();
     }
 
+    // boards are equal when they hold the same pieces on the same squares, regardless of turn or move history
     @Override
     public boolean equals(Object o) {
         if (this == o) { return true; }
         if (o == null || getClass() != o.getClass()) { return false; }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(squares, that.squares);
+        return Arrays.equals(pieces, that.pieces);
     }
 
+    // equal boards have equal piece keys, so the incrementally kept key doubles as an O(1) hash code
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return (int) (pieceKey ^ (pieceKey >>> 32));
     }
 }
@@ -0,0 +1,65 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Gson support for {@link ChessBoard}, attached to the class so every Gson instance uses it
+ * <p>
+ * The board is written by reflection, which leaves out the transient Zobrist key and piece-square score. Both are
+ * worked out again from the bitboards after reading, so a stored board never brings back a stale key.
+ * <p>
+ * Boards stored before the move to bitboards are an 8x8 {@code squares} array of pieces indexed by row and column,
+ * and are rebuilt square by square. Such a board has no turn, castling rights or en passant square of its own; see
+ * {@link ChessGameAdapter} for how a game fills those in.
+ */
+public class ChessBoardAdapter implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != ChessBoard.class) { return null; }
+        TypeAdapter<ChessBoard> reflective = gson.getDelegateAdapter(this, TypeToken.get(ChessBoard.class));
+        TypeAdapter<JsonElement> tree = gson.getAdapter(JsonElement.class);
+        return (TypeAdapter<T>) new TypeAdapter<ChessBoard>() {
+            @Override
+            public void write(JsonWriter out, ChessBoard board) throws IOException { reflective.write(out, board); }
+
+            @Override
+            public ChessBoard read(JsonReader in) throws IOException {
+                JsonElement json = tree.read(in);
+                if (isLegacy(json)) { return readLegacy(json.getAsJsonObject().getAsJsonArray("squares")); }
+                ChessBoard board = reflective.fromJsonTree(json);
+                if (board != null) { board.recomputeDerivedState(); }
+                return board;
+            }
+        };
+    }
+
+    static boolean isLegacy(JsonElement board) {
+        return board != null && board.isJsonObject() && board.getAsJsonObject().has("squares");
+    }
+
+    private static ChessBoard readLegacy(JsonArray squares) {
+        if (squares.size() != 8) { throw new JsonParseException("Legacy board needs 8 rows, found " + squares.size()); }
+        ChessPieceAdapter pieces = new ChessPieceAdapter();
+        ChessBoard board = new ChessBoard();
+        for (int row = 0; row < 8; row++) {
+            JsonArray columns = squares.get(row).getAsJsonArray();
+            if (columns.size() != 8) { throw new JsonParseException("Legacy board row " + (row + 1) + " needs 8 squares, found " + columns.size()); }
+            for (int col = 0; col < 8; col++) {
+                board.addPiece(new ChessPosition(row + 1, col + 1), pieces.fromJsonTree(columns.get(col)));
+            }
+        }
+        return board;
+    }
+}
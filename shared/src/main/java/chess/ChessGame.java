@@ -1,48 +1,166 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.*;
 
+@JsonAdapter(ChessGameAdapter.class)
 public class ChessGame {
+    // separates the legal move cache entries for the two teams' moves in the same position
+    private static final long BLACK_MOVES_SALT = 0x9E3779B97F4A7C15L;
+    // castling rights that survive a move touching each square; only king and rook home squares clear any
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, ChessBoard.ALL_CASTLING);
+        CASTLING_MASK[0] &= ~ChessBoard.WHITE_QUEENSIDE;
+        CASTLING_MASK[7] &= ~ChessBoard.WHITE_KINGSIDE;
+        CASTLING_MASK[4] &= ~(ChessBoard.WHITE_KINGSIDE | ChessBoard.WHITE_QUEENSIDE);
+        CASTLING_MASK[56] &= ~ChessBoard.BLACK_QUEENSIDE;
+        CASTLING_MASK[63] &= ~ChessBoard.BLACK_KINGSIDE;
+        CASTLING_MASK[60] &= ~(ChessBoard.BLACK_KINGSIDE | ChessBoard.BLACK_QUEENSIDE);
+    }
+
+    // positions further back than this can never repeat: a capture or pawn move would have happened, or the
+    // fifty-move rule would have ended the game
+    private static final int HISTORY_SIZE = 128;
+
     private ChessBoard board;
-    private TeamColor currentTurn;
+    // ring of the Zobrist keys of the positions before each move, indexed by ply count; ChessGameAdapter stores only
+    // the keys that can still repeat and rebuilds the ring from them
+    private transient long[] positionHistory = new long[HISTORY_SIZE];
+    private transient int plyCount;
+    // half-moves since the last capture or pawn move
+    private int halfmoveClock;
+    // reusable move buffer for internal searches, not part of the game's state
+    private transient int[] scratch;
 
     public ChessGame() {
         this.board = new ChessBoard();
         board.resetBoard();
-        this.currentTurn = TeamColor.WHITE;
     }
 
-    // returns the team whose turn it currently is
-    public TeamColor getTeamTurn() { return currentTurn; }
+    // copies another game, including its board, so the two can be played independently
+    public ChessGame(ChessGame other) {
+        this.board = new ChessBoard(other.board);
+        this.positionHistory = other.positionHistory.clone();
+        this.plyCount = other.plyCount;
+        this.halfmoveClock = other.halfmoveClock;
+    }
+
+    // returns the team whose turn it currently is, which is tracked by the board
+    public TeamColor getTeamTurn() { return board.getSideToMove(); }
 
     // gives the current turn to the specified team
-    public void setTeamTurn(TeamColor team) { currentTurn = team; }
+    public void setTeamTurn(TeamColor team) { board.setSideToMove(team); }
+
+    // 64-bit Zobrist key of the current position, kept up to date as moves are made
+    public long getZobristKey() { return board.getZobristKey(); }
+
+    /**
+     * Static evaluation of the current position in centipawns, positive when white is better
+     * <p>
+     * Material and piece placement are kept up to date by every move, so only mobility and king safety are counted
+     * here; see {@link Evaluation}.
+     */
+    public int getEvaluation() { return Evaluation.evaluate(board); }
+
+    // the evaluation from one team's point of view, positive when that team is better
+    public int getEvaluation(TeamColor team) {
+        int score = getEvaluation();
+        return (team == TeamColor.WHITE) ? score : -score;
+    }
+
+    // remaining castling rights as ChessBoard.WHITE_KINGSIDE etc. bits, tracked by the board
+    public int getCastlingRights() { return board.getCastlingRights(); }
+
+    // square a pawn may capture onto en passant this turn, or -1 if there is none
+    public int getEnPassantSquare() { return board.getEnPassantSquare(); }
 
     public enum TeamColor {
         WHITE,
-        BLACK
+        BLACK;
+
+        public TeamColor opponent() { return (this == WHITE) ? BLACK : WHITE; }
+    }
+
+    // the state of a team after its opponent has moved
+    public enum GameStatus {
+        NORMAL,
+        CHECK,
+        CHECKMATE,
+        STALEMATE,
+        // draws: the same position for the third time, or fifty moves by each side without a capture or pawn move
+        THREEFOLD_REPETITION,
+        FIFTY_MOVE_RULE
     }
 
     // returns a collection of all valid moves (accounting for check) of a given position
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
         ChessPiece piece = board.getPiece(startPosition);
         if (piece == null) { return null; }
-        Collection<ChessMove> moves = piece.pieceMoves(board, startPosition);
-        Collection<ChessMove> movesToRemove = new ArrayList<>();
-        for (ChessMove move : moves) {
-            ChessPosition endPosition = move.getEndPosition();
-            TeamColor color = piece.getTeamColor();
-            ChessPiece capturedPiece = board.getPiece(endPosition);
-            board.addPiece(endPosition, piece);
-            board.addPiece(startPosition, null);
-            if (isInCheck(color)) { movesToRemove.add(move); }
-            board.addPiece(endPosition, capturedPiece);
-            board.addPiece(startPosition, piece);
+        int from = Bitboards.square(startPosition);
+        Collection<ChessMove> moves = new ArrayList<>();
+        for (int move : legalMoves(piece.getTeamColor())) {
+            if (Move.from(move) == from) { moves.add(Move.toChessMove(move)); }
+        }
+        return moves;
+    }
+
+    // every legal move of a team, encoded with Move; served from the shared LegalMoveCache when possible
+    private int[] legalMoves(TeamColor color) {
+        long key = cacheKey(color);
+        long occupancy = board.getOccupancy();
+        LegalMoveCache cache = LegalMoveCache.shared();
+        int[] moves = cache.get(key, occupancy);
+        if (moves == null) {
+            moves = generateLegalMoves(color);
+            cache.put(key, occupancy, moves);
         }
-        for (ChessMove move : movesToRemove) { moves.remove(move); }
         return moves;
     }
 
+    private long cacheKey(TeamColor color) {
+        return board.getZobristKey() ^ ((color == TeamColor.BLACK) ? BLACK_MOVES_SALT : 0L);
+    }
+
+    private int[] generateLegalMoves(TeamColor color) {
+        int[] buffer = scratchBuffer();
+        return Arrays.copyOf(buffer, generateLegalMoves(color, buffer));
+    }
+
+    private int[] scratchBuffer() {
+        if (scratch == null) { scratch = new int[Move.MAX_MOVES]; }
+        return scratch;
+    }
+
+    /**
+     * Writes every legal move of the team whose turn it is into the buffer, encoded with {@link Move}
+     *
+     * @param buffer receives the moves from index 0; must hold at least {@link Move#MAX_MOVES} entries
+     * @return how many moves were written
+     */
+    public int generateLegalMoves(int[] buffer) {
+        return generateLegalMoves(getTeamTurn(), buffer);
+    }
+
+    public int generateLegalMoves(TeamColor color, int[] buffer) {
+        int count = MoveGenerator.generate(board, color, buffer);
+        int legal = 0;
+        for (int i = 0; i < count; i++) {
+            if (!leavesKingInCheck(buffer[i], color)) { buffer[legal++] = buffer[i]; }
+        }
+        return legal;
+    }
+
+    // plays a move on the bitboards, asks whether the mover's king is attacked, then takes the move back
+    private boolean leavesKingInCheck(int move, TeamColor color) {
+        long undo = doMove(move);
+        boolean inCheck = isInCheck(color);
+        undoMove(undo);
+        return inCheck;
+    }
+
     // returns true if a given move is in bounds
     private boolean inBounds(ChessPosition position) {
         return (    position.getRow() <= 8 && position.getColumn() <= 8
@@ -52,77 +170,186 @@ public class ChessGame {
     // makes the move given, has lots of error checking
     public void makeMove(ChessMove move) throws InvalidMoveException {
         ChessPosition start = move.getStartPosition();
-        if (board.getPiece(start) == null) { throw(new InvalidMoveException("Invalid Move: No piece at start position")); }
         ChessPosition end = move.getEndPosition();
+        if (!inBounds(start) || !inBounds(end)) { throw(new InvalidMoveException("Invalid Move: Move is out of bounds")); }
         ChessPiece originalPiece = board.getPiece(start);
+        if (originalPiece == null) { throw(new InvalidMoveException("Invalid Move: No piece at start position")); }
         TeamColor color = originalPiece.getTeamColor();
-        if (board.getPiece(end) != null && board.getPiece(end).getTeamColor() == color) {
+        ChessPiece endPiece = board.getPiece(end);
+        if (endPiece != null && endPiece.getTeamColor() == color) {
             throw(new InvalidMoveException("Invalid Move: Cannot capture own team's piece"));
         }
-        if (!originalPiece.pieceMoves(board, start).contains(move))  { throw(new InvalidMoveException("Invalid Move: This piece can't move there")); }
+        int from = Bitboards.square(start);
+        int to = Bitboards.square(end);
+        if (!isPseudoLegal(from, to, originalPiece, move.getPromotionPiece()))  { throw(new InvalidMoveException("Invalid Move: This piece can't move there")); }
         if (color != getTeamTurn()) { throw(new InvalidMoveException("Invalid Move: Cannot move out of turn")); }
-        if (!inBounds(end)) { throw(new InvalidMoveException("Invalid Move: Move is out of bounds")); }
+        // error check for if the move puts king in danger
+        if (leavesKingInCheck(Move.encode(from, to, move.getPromotionPiece()), color)) { throw(new InvalidMoveException("Invalid Move: Move puts your king in check")); }
 
         // here's where the actual move happens
-        ChessPiece piece = (move.getPromotionPiece() == null) ?
-                board.getPiece(move.getStartPosition()) :
-                new ChessPiece(color, move.getPromotionPiece());
-        board.addPiece(end, piece);
-        board.addPiece(start, null);
-
-        if (!isInCheck(color))  {
-            if (this.currentTurn == TeamColor.BLACK) { this.currentTurn = TeamColor.WHITE; }
-            else { this.currentTurn = TeamColor.BLACK; }
-            return;
-        } else { // error check for if the move puts king in danger
-            board.addPiece(start, originalPiece);
-            board.addPiece(end, null);
-            throw(new InvalidMoveException("Invalid Move: Move puts your king in check"));
+        doMove(from, to, move.getPromotionPiece());
+    }
+
+    // same answer as piece.pieceMoves(board, start).contains(move), worked out from the target bitboards,
+    // plus castling and en passant, which depend on the game's history rather than the piece alone
+    private boolean isPseudoLegal(int from, int to, ChessPiece piece, ChessPiece.PieceType promotion) {
+        TeamColor color = piece.getTeamColor();
+        long toBit = 1L << to;
+        long occupied = board.getOccupancy();
+        if ((board.getOccupancy(color) & toBit) != 0) { return false; }
+        if (piece.getPieceType() == ChessPiece.PieceType.KING && promotion == null && Math.abs(to - from) == 2) {
+            return MoveGenerator.canCastle(board, color, to > from);
+        }
+        if (piece.getPieceType() != ChessPiece.PieceType.PAWN) {
+            return promotion == null && (Bitboards.attacks(piece.getPieceType(), color, from, occupied) & toBit) != 0;
+        }
+
+        int toRow = Bitboards.rowOf(to);
+        boolean promotes = toRow == 8 || toRow == 1;
+        if (promotes != (promotion != null)) { return false; }
+        if (promotion == ChessPiece.PieceType.KING || promotion == ChessPiece.PieceType.PAWN) { return false; }
+        if ((Bitboards.pawnAttacks(color, from) & toBit) != 0) {
+            return (board.getOccupancy(color.opponent()) & toBit) != 0
+                    || (to == board.getEnPassantSquare() && MoveGenerator.canCaptureEnPassant(board, color, from));
         }
+        int forward = (color == TeamColor.WHITE) ? 8 : -8;
+        int startRow = (color == TeamColor.WHITE) ? 2 : 7;
+        if (to == from + forward) { return (occupied & toBit) == 0; }
+        return to == from + 2 * forward && Bitboards.rowOf(from) == startRow
+                && (occupied & (toBit | 1L << (from + forward))) == 0;
     }
 
-    // uses a for loop to find the king for a given team
-    private ChessPosition findKing(TeamColor color) {
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                if ((board.getPiece(new ChessPosition(i, j)) != null)
-                        && (board.getPiece(new ChessPosition(i, j)).getPieceType() == ChessPiece.PieceType.KING)
-                        && (board.getPiece(new ChessPosition(i, j)).getTeamColor() == color)) {
-                    return new ChessPosition(i, j);
-                }
-            }
+    /*
+     * Undo records pack everything doMove changes into one long:
+     * bits 0-5 from square, 6-11 to square, 12-15 moved piece slot, 16-19 captured piece slot + 1 (0 for none),
+     * bit 20 side to move, bits 21-24 castling rights, bits 25-31 en passant square + 1 (0 for none),
+     * bits 32-63 halfmove clock.
+     * Castling is recognised on the way back by a king moving two files, and en passant by a pawn landing on the
+     * old en passant square, in which case the captured pawn stood one rank behind the to square.
+     */
+
+    /**
+     * Plays a move without checking that it is legal, switching the turn to the other team
+     *
+     * @return an undo record that restores the position when passed to {@link #undoMove(long)}
+     * @throws IllegalArgumentException if there is no piece on the move's start square, or a king moves two files
+     *                                  other than to castle from its home square with its rook still in the corner
+     */
+    public long doMove(ChessMove move) {
+        return doMove(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()), move.getPromotionPiece());
+    }
+
+    // same as doMove(ChessMove) for a move encoded with Move
+    public long doMove(int move) {
+        return doMove(Move.from(move), Move.to(move), Move.promotion(move));
+    }
+
+    long doMove(int from, int to, ChessPiece.PieceType promotion) {
+        int moved = board.pieceIndexAt(from);
+        // -1 would sign-extend across the undo record and index past the bitboards
+        if (moved < 0) { throw new IllegalArgumentException("No piece to move on " + Fen.squareName(from)); }
+        TeamColor color = (moved < 6) ? TeamColor.WHITE : TeamColor.BLACK;
+        boolean castling = moved == ChessBoard.index(color, ChessPiece.PieceType.KING) && Math.abs(to - from) == 2;
+        int rookFrom = castling ? castlingRookSquare(color, from, to) : -1;
+        // a king only moves two files to castle, so anything else would move a rook that is not there
+        if (castling && (rookFrom < 0 || board.pieceIndexAt(rookFrom) != ChessBoard.index(color, ChessPiece.PieceType.ROOK))) {
+            throw new IllegalArgumentException("Cannot castle from " + Fen.squareName(from) + " to " + Fen.squareName(to));
         }
-        return null;
+        int captured = board.pieceIndexAt(to);
+        long undo = from
+                | (long) to << 6
+                | (long) moved << 12
+                | (long) (captured + 1) << 16
+                | (long) board.getSideToMove().ordinal() << 20
+                | (long) board.getCastlingRights() << 21
+                | (long) (board.getEnPassantSquare() + 1) << 25
+                | (long) halfmoveClock << 32;
+        positionHistory[plyCount++ & (HISTORY_SIZE - 1)] = board.getZobristKey();
+
+        int forward = (color == TeamColor.WHITE) ? 8 : -8;
+        boolean pawn = moved == ChessBoard.index(color, ChessPiece.PieceType.PAWN);
+        if (pawn && to == board.getEnPassantSquare() && Bitboards.columnOf(to) != Bitboards.columnOf(from)) {
+            captured = board.pieceIndexAt(to - forward);
+            undo |= (long) (captured + 1) << 16;
+            board.removePiece(to - forward, captured);
+        }
+        halfmoveClock = (pawn || captured >= 0) ? 0 : halfmoveClock + 1;
+        board.removePiece(from, moved);
+        if (captured >= 0 && to != board.getEnPassantSquare()) { board.removePiece(to, captured); }
+        board.putPiece(to, (promotion == null) ? moved : ChessBoard.index(color, promotion));
+        if (castling) {
+            int rook = board.pieceIndexAt(rookFrom);
+            board.removePiece(rookFrom, rook);
+            board.putPiece((from + to) / 2, rook);
+        }
+
+        board.setCastlingRights(board.getCastlingRights() & CASTLING_MASK[from] & CASTLING_MASK[to]);
+        // only record an en passant square when an enemy pawn could actually use it, so equal positions hash equally
+        int passed = from + forward;
+        boolean capturable = pawn && to == from + 2 * forward && MoveGenerator.isEnPassantCapturable(board, passed, color.opponent());
+        board.setEnPassantSquare(capturable ? passed : -1);
+        board.setSideToMove(color.opponent());
+        return undo;
+    }
+
+    // takes back the move that produced the undo record; moves must be undone in reverse order
+    public void undoMove(long undo) {
+        int from = (int) (undo & 0x3F);
+        int to = (int) (undo >>> 6 & 0x3F);
+        int moved = (int) (undo >>> 12 & 0xF);
+        int captured = (int) (undo >>> 16 & 0xF) - 1;
+
+        int enPassant = (int) (undo >>> 25 & 0x7F) - 1;
+        TeamColor color = (moved < 6) ? TeamColor.WHITE : TeamColor.BLACK;
+
+        board.clearSquare(to);
+        board.putPiece(from, moved);
+        if (captured >= 0) {
+            boolean passant = to == enPassant && moved == ChessBoard.index(color, ChessPiece.PieceType.PAWN);
+            board.putPiece(passant ? to + ((color == TeamColor.WHITE) ? -8 : 8) : to, captured);
+        }
+        // doMove only records two-file king moves that castled from the home square, so the rook is beside the king
+        if (moved == ChessBoard.index(color, ChessPiece.PieceType.KING) && Math.abs(to - from) == 2) {
+            int rookFrom = castlingRookSquare(color, from, to);
+            int rookTo = (from + to) / 2;
+            int rook = board.pieceIndexAt(rookTo);
+            board.removePiece(rookTo, rook);
+            board.putPiece(rookFrom, rook);
+        }
+        board.setSideToMove(((undo >>> 20 & 1) == 0) ? TeamColor.WHITE : TeamColor.BLACK);
+        board.setCastlingRights((int) (undo >>> 21 & 0xF));
+        board.setEnPassantSquare(enPassant);
+        halfmoveClock = (int) (undo >>> 32);
+        plyCount--;
+    }
+
+    // the square of the rook a king castles with when it moves two files from its home square, or -1 from anywhere else
+    private static int castlingRookSquare(TeamColor color, int from, int to) {
+        int home = (color == TeamColor.WHITE) ? 4 : 60;
+        if (from != home) { return -1; }
+        return (to > from) ? from + 3 : from - 4;
     }
 
     // returns true if the team's king is in check
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition kingPosition = findKing(teamColor);
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                ChessPosition potentialPosition = new ChessPosition(i,j);
-                ChessPiece potentialPiece = board.getPiece(potentialPosition);
-                if ((potentialPiece != null) && (potentialPiece.getTeamColor() != teamColor)) { // piece is on opposite team
-                    Collection<ChessMove> moves = potentialPiece.pieceMoves(board, potentialPosition);
-                    if (moves.contains(new ChessMove(potentialPosition, kingPosition, null))) { return true; }
-                    if (    potentialPiece.getPieceType() == ChessPiece.PieceType.PAWN
-                            && moves.contains(new ChessMove(potentialPosition, kingPosition, ChessPiece.PieceType.QUEEN))) { return true; }
-                }
-            }
+        int kingSquare = board.kingSquare(teamColor);
+        return kingSquare >= 0 && board.isSquareAttacked(kingSquare, teamColor.opponent());
+    }
+
+    // returns true if the team has at least one legal move, stopping at the first one found
+    private boolean hasLegalMove(TeamColor teamColor) {
+        int[] cached = LegalMoveCache.shared().get(cacheKey(teamColor), board.getOccupancy());
+        if (cached != null) { return cached.length > 0; }
+        int[] buffer = scratchBuffer();
+        int count = MoveGenerator.generate(board, teamColor, buffer);
+        for (int i = 0; i < count; i++) {
+            if (!leavesKingInCheck(buffer[i], teamColor)) { return true; }
         }
         return false;
     }
 
     private boolean checkHelper(TeamColor teamColor) {
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                ChessPosition position = new ChessPosition(i, j);
-                if (board.getPiece(position) != null && board.getPiece(position).getTeamColor() == teamColor && !validMoves(position).isEmpty()) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return !hasLegalMove(teamColor);
     }
 
     // returns true if the team's king is in checkmate
@@ -137,8 +364,83 @@ public class ChessGame {
         return checkHelper(teamColor);
     }
 
-    // sets the game's board equal to the board that has been passed in
-    public void setBoard(ChessBoard board) { this.board = board; }
+    // works out check, checkmate, stalemate and the draw rules together: one attack query and a search that ends at
+    // the first legal move; checkmate on the move that completes fifty moves still counts
+    public GameStatus getGameStatus(TeamColor teamColor) {
+        boolean inCheck = isInCheck(teamColor);
+        if (!hasLegalMove(teamColor)) { return inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE; }
+        if (isThreefoldRepetition()) { return GameStatus.THREEFOLD_REPETITION; }
+        if (isFiftyMoveRule()) { return GameStatus.FIFTY_MOVE_RULE; }
+        return inCheck ? GameStatus.CHECK : GameStatus.NORMAL;
+    }
+
+    // returns true if the current position has occurred at least twice before with the same side to move
+    public boolean isThreefoldRepetition() {
+        long key = board.getZobristKey();
+        // one short of the whole ring: the oldest slot is the next one doMove writes, so a legality probe in this
+        // position has just overwritten it and undoMove does not put it back
+        int lookBack = Math.min(Math.min(halfmoveClock, plyCount), HISTORY_SIZE - 1);
+        int seen = 1;
+        // only positions since the last capture or pawn move can match, and only every other one has the same side to move
+        for (int back = 2; back <= lookBack; back += 2) {
+            if (positionHistory[(plyCount - back) & (HISTORY_SIZE - 1)] == key && ++seen == 3) { return true; }
+        }
+        return false;
+    }
+
+    // keys of the positions since the last capture or pawn move, oldest first: the only ones that can still repeat
+    long[] repeatablePositions() {
+        int count = Math.min(Math.min(halfmoveClock, plyCount), HISTORY_SIZE - 1);
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) { keys[i] = positionHistory[(plyCount - count + i) & (HISTORY_SIZE - 1)]; }
+        return keys;
+    }
+
+    // replaces the history with the given keys, oldest first, as if they were the positions before the last moves
+    void restorePositions(long[] keys) {
+        int count = Math.min(keys.length, HISTORY_SIZE - 1);
+        positionHistory = new long[HISTORY_SIZE];
+        System.arraycopy(keys, keys.length - count, positionHistory, 0, count);
+        plyCount = count;
+    }
+
+    // returns true once both sides have made fifty moves without a capture or pawn move
+    public boolean isFiftyMoveRule() { return halfmoveClock >= 100; }
+
+    public int getHalfmoveClock() { return halfmoveClock; }
+
+    // sets the halfmove clock, e.g. from a FEN record; earlier positions are not known, so repetition starts afresh
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+        this.plyCount = 0;
+    }
+
+    /**
+     * Sets the game's board equal to the board that has been passed in, keeping whose turn it is
+     * <p>
+     * A loaded board carries no history, so kings and rooks on their starting squares are assumed not to have
+     * moved and keep their castling rights, and no en passant capture is available.
+     */
+    public void setBoard(ChessBoard board) {
+        board.setSideToMove(getTeamTurn());
+        board.setCastlingRights(inferCastlingRights(board));
+        board.setEnPassantSquare(-1);
+        this.board = board;
+        this.plyCount = 0;
+        this.halfmoveClock = 0;
+    }
+
+    private static int inferCastlingRights(ChessBoard board) {
+        int rights = 0;
+        for (TeamColor color : TeamColor.values()) {
+            int home = (color == TeamColor.WHITE) ? 4 : 60;
+            if (board.pieceIndexAt(home) != ChessBoard.index(color, ChessPiece.PieceType.KING)) { continue; }
+            int rook = ChessBoard.index(color, ChessPiece.PieceType.ROOK);
+            if (board.pieceIndexAt(home + 3) == rook) { rights |= (color == TeamColor.WHITE) ? ChessBoard.WHITE_KINGSIDE : ChessBoard.BLACK_KINGSIDE; }
+            if (board.pieceIndexAt(home - 4) == rook) { rights |= (color == TeamColor.WHITE) ? ChessBoard.WHITE_QUEENSIDE : ChessBoard.BLACK_QUEENSIDE; }
+        }
+        return rights;
+    }
 
     // returns the game's current board
     public ChessBoard getBoard() { return board; }
@@ -148,19 +450,19 @@ public class ChessGame {
         if (this == o) { return true; }
         if (o == null || getClass() != o.getClass()) { return false; }
         ChessGame chessGame = (ChessGame) o;
-        return Objects.equals(board, chessGame.board) && currentTurn == chessGame.currentTurn;
+        return Objects.equals(board, chessGame.board) && getTeamTurn() == chessGame.getTeamTurn();
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(board, currentTurn);
+        return Objects.hash(board, getTeamTurn());
     }
 
     @Override
     public String toString() {
         return "ChessGame{" +
                 "board=" + board +
-                ", currentTurn=" + currentTurn +
+                ", currentTurn=" + getTeamTurn() +
                 "}\n";
     }
 }
@@ -0,0 +1,70 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Gson support for {@link ChessGame}, attached to the class so every Gson instance uses it
+ * <p>
+ * Games are written by reflection, plus {@code history}: the Zobrist keys of the positions since the last capture or
+ * pawn move, oldest first, which are all that threefold repetition needs. The in-memory ring they come from is
+ * rebuilt from that list on reading.
+ * <p>
+ * Games stored before the move to bitboards kept the turn in {@code currentTurn}
+ * and the board as a {@code squares} array; they are read back with that turn, castling rights inferred from kings
+ * and rooks still on their home squares, no en passant capture and no repetition history, as
+ * {@link ChessGame#setBoard} does for any board without a history.
+ */
+public class ChessGameAdapter implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != ChessGame.class) { return null; }
+        TypeAdapter<ChessGame> reflective = gson.getDelegateAdapter(this, TypeToken.get(ChessGame.class));
+        TypeAdapter<JsonElement> tree = gson.getAdapter(JsonElement.class);
+        return (TypeAdapter<T>) new TypeAdapter<ChessGame>() {
+            @Override
+            public void write(JsonWriter out, ChessGame game) throws IOException {
+                if (game == null) {
+                    out.nullValue();
+                    return;
+                }
+                JsonObject json = reflective.toJsonTree(game).getAsJsonObject();
+                JsonArray history = new JsonArray();
+                for (long key : game.repeatablePositions()) { history.add(key); }
+                json.add("history", history);
+                tree.write(out, json);
+            }
+
+            @Override
+            public ChessGame read(JsonReader in) throws IOException {
+                JsonElement json = tree.read(in);
+                ChessGame game = reflective.fromJsonTree(json);
+                if (game == null || !json.isJsonObject()) { return game; }
+                JsonObject object = json.getAsJsonObject();
+                if (object.has("currentTurn") && !object.get("currentTurn").isJsonNull()) {
+                    game.setTeamTurn(ChessGame.TeamColor.valueOf(object.get("currentTurn").getAsString()));
+                }
+                if (ChessBoardAdapter.isLegacy(object.get("board"))) { game.setBoard(game.getBoard()); }
+                if (object.has("history")) { game.restorePositions(readKeys(object.getAsJsonArray("history"))); }
+                return game;
+            }
+        };
+    }
+
+    private static long[] readKeys(JsonArray array) {
+        long[] keys = new long[array.size()];
+        for (int i = 0; i < keys.length; i++) { keys[i] = array.get(i).getAsLong(); }
+        return keys;
+    }
+}
@@ -9,9 +9,14 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessMove {
-    private ChessPosition startPosition;
-    private ChessPosition endPosition;
-    private ChessPiece.PieceType promotionPiece;
+    private static final int PROMOTIONS = ChessPiece.PieceType.values().length + 1;
+    // shared instances indexed by from square, to square and promotion ordinal + 1, filled in on first use;
+    // moves are immutable, so two threads racing to fill a slot just store equal objects
+    private static final ChessMove[] MOVES = new ChessMove[64 * 64 * PROMOTIONS];
+
+    private final ChessPosition startPosition;
+    private final ChessPosition endPosition;
+    private final ChessPiece.PieceType promotionPiece;
 
     public ChessMove(ChessPosition startPosition, ChessPosition endPosition, ChessPiece.PieceType promotionPiece) {
         this.startPosition = startPosition;
@@ -19,6 +24,27 @@ public class ChessMove {
         this.promotionPiece = promotionPiece;
     }
 
+    // shared move between two Bitboards squares, so move generation does not allocate once warmed up
+    public static ChessMove of(int from, int to, ChessPiece.PieceType promotionPiece) {
+        int index = (from * 64 + to) * PROMOTIONS + ((promotionPiece == null) ? 0 : promotionPiece.ordinal() + 1);
+        ChessMove move = MOVES[index];
+        if (move == null) {
+            move = new ChessMove(ChessPosition.of(from), ChessPosition.of(to), promotionPiece);
+            MOVES[index] = move;
+        }
+        return move;
+    }
+
+    // shared move between two positions on the board; positions off the board get a fresh move
+    public static ChessMove of(ChessPosition startPosition, ChessPosition endPosition, ChessPiece.PieceType promotionPiece) {
+        if (!onBoard(startPosition) || !onBoard(endPosition)) { return new ChessMove(startPosition, endPosition, promotionPiece); }
+        return of(Bitboards.square(startPosition), Bitboards.square(endPosition), promotionPiece);
+    }
+
+    private static boolean onBoard(ChessPosition position) {
+        return position.getRow() >= 1 && position.getRow() <= 8 && position.getColumn() >= 1 && position.getColumn() <= 8;
+    }
+
     /**
      * @return ChessPosition of starting location
      */
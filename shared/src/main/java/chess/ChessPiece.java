@@ -11,15 +11,34 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessPiece {
-    
-    private PieceType type;
-    private ChessGame.TeamColor color;
+    // the twelve canonical pieces, indexed like ChessBoard bitboard slots
+    private static final ChessPiece[] CANONICAL = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                CANONICAL[ChessBoard.index(color, type)] = new ChessPiece(color, type);
+            }
+        }
+    }
+
+    private final PieceType type;
+    private final ChessGame.TeamColor color;
 
     public ChessPiece(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
         this.type = type;
         this.color = pieceColor;
     }
 
+    /**
+     * Returns the shared piece of a team and type; pieces are immutable, so it can be used anywhere a new
+     * piece would be and compares equal to one
+     */
+    public static ChessPiece of(ChessGame.TeamColor color, PieceType type) { return CANONICAL[ChessBoard.index(color, type)]; }
+
+    // shared piece for a ChessBoard bitboard slot
+    static ChessPiece of(int slot) { return CANONICAL[slot]; }
+
     /**
      * The various different chess piece options
      */
@@ -62,29 +81,16 @@ public class ChessPiece {
         if (piece == null) {    // No piece at this position, return an empty list
             return moves;
         }
-        
+
+        int sq = Bitboards.square(myPosition);
+        long occupied = board.getOccupancy();
+
         // Determine possible moves based on piece type
-        switch (piece.getPieceType()) {
-            case PAWN:      // Implement pawn move logic
-                addPawnMoves(board, myPosition, moves); 
-                break;
-            case ROOK:      // Implement rook move logic
-                addRookMoves(board, myPosition, moves);
-                break;
-            case BISHOP:    // Implement bishop move logic
-                addBishopMoves(board, myPosition, moves);
-                break;
-            case KNIGHT:    // Implement knight move logic
-                addKnightMoves(board, myPosition, moves);
-                break;
-            case QUEEN:     // Implement queen move logic
-                addQueenMoves(board, myPosition, moves);
-                break;
-            case KING:      // Implement king move logic
-                addKingMoves(board, myPosition, moves);
-                break;
-            default:
-                throw new IllegalStateException("Unexpected piece type: " + piece.getPieceType());
+        if (piece.getPieceType() == PieceType.PAWN) {
+            addPawnMoves(board, piece.getTeamColor(), myPosition, moves);
+        } else {
+            long notOwn = ~board.getOccupancy(piece.getTeamColor());
+            addTargets(myPosition, Bitboards.attacks(piece.getPieceType(), piece.getTeamColor(), sq, occupied) & notOwn, moves);
         }
         
         return moves;
@@ -92,289 +98,69 @@ public class ChessPiece {
     
     // Methods for adding specific piece moves
 
-    private boolean validateMoveAndStop(ChessBoard board, ChessPosition position, ChessPosition endPosition, List<ChessMove> moves) {
-        if (board.getPiece(endPosition) == null){                                           // empty space
-            moves.add(new ChessMove(position, endPosition, null));
-            return false;
-        } else if (board.getPiece(endPosition).getTeamColor() != this.getTeamColor()) {     // enemy piece
-            moves.add(new ChessMove(position, endPosition, null));
-            return true;
-        } else {                                                                            // friendly piece
-            return true;
+    // adds one move per set bit in the target bitboard
+    private void addTargets(ChessPosition position, long targets, List<ChessMove> moves) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(ChessMove.of(position, ChessPosition.of(to), null));
         }
     }
 
     private void pawnPromotionHelper(List<ChessMove> moves, ChessPosition position, ChessPosition endPosition) {
-        moves.add(new ChessMove(position, endPosition, PieceType.KNIGHT));
-        moves.add(new ChessMove(position, endPosition, PieceType.QUEEN));
-        moves.add(new ChessMove(position, endPosition, PieceType.ROOK));
-        moves.add(new ChessMove(position, endPosition, PieceType.BISHOP));
+        moves.add(ChessMove.of(position, endPosition, PieceType.KNIGHT));
+        moves.add(ChessMove.of(position, endPosition, PieceType.QUEEN));
+        moves.add(ChessMove.of(position, endPosition, PieceType.ROOK));
+        moves.add(ChessMove.of(position, endPosition, PieceType.BISHOP));
     }
 
-    private void checkPawnPromotionMove(ChessBoard board, ChessPosition position, ChessPosition endPosition, List<ChessMove> moves) {
-        // promotion cases below
-        if ((endPosition.getRow() == 8) && (this.color == ChessGame.TeamColor.WHITE)) {
-            pawnPromotionHelper(moves, position, endPosition);
-        } else if ((endPosition.getRow() == 1) && (this.color == ChessGame.TeamColor.BLACK)) {
+    // adds a pawn move to a square, expanding it into every promotion when it reaches the last row
+    private void addPawnMove(List<ChessMove> moves, ChessPosition position, int to) {
+        ChessPosition endPosition = ChessPosition.of(to);
+        if (endPosition.getRow() == 8 || endPosition.getRow() == 1) {
             pawnPromotionHelper(moves, position, endPosition);
         } else {
-            moves.add(new ChessMove(position, endPosition, null)); // if not promotion case, then leave pawn as is
+            moves.add(ChessMove.of(position, endPosition, null));
         }
     }
 
-    private void addPawnMoves(ChessBoard board, ChessPosition position, List<ChessMove> moves) {
-        int row = position.getRow();
-        int col = position.getColumn();
+    private void addPawnMoves(ChessBoard board, ChessGame.TeamColor color, ChessPosition position, List<ChessMove> moves) {
+        int sq = Bitboards.square(position);
+        long occupied = board.getOccupancy();
         // Logic will be different for white vs black
-        if (this.color == ChessGame.TeamColor.WHITE) {
-            // normal move
-            ChessPosition oneSpace = new ChessPosition(row + 1, col);
-            if (board.getPiece(oneSpace) == null){
-                checkPawnPromotionMove(board, position, oneSpace, moves);
-                // first move condition
-                if (row == 2) {
-                    ChessPosition twoSpace = new ChessPosition(row + 2, col);
-                    if (board.getPiece(twoSpace) == null) {
-                        moves.add(new ChessMove(position, twoSpace, null));
-                    }
-                }
-            }
-            // diagonal attacks
-            if (col < 8) {
-                ChessPosition diagonalRight = new ChessPosition(row + 1, col + 1);
-                if ((board.getPiece(diagonalRight) != null) && (board.getPiece(diagonalRight).getTeamColor() == ChessGame.TeamColor.BLACK)) {
-                    checkPawnPromotionMove(board, position, diagonalRight, moves);
-                }
-            }
-            if (col > 1) {
-                ChessPosition diagonalLeft = new ChessPosition(row + 1, col - 1);
-                if ((board.getPiece(diagonalLeft) != null) && (board.getPiece(diagonalLeft).getTeamColor() == ChessGame.TeamColor.BLACK)) {
-                    checkPawnPromotionMove(board, position, diagonalLeft, moves);
-                }
-            }
-        } else /* this.color == ChessGame.TeamColor.BLACK */ {
-            // normal move
-            ChessPosition oneSpace = new ChessPosition(row - 1, col);
-            if (board.getPiece(oneSpace) == null){
-                checkPawnPromotionMove(board, position, oneSpace, moves);
-                // first move condition
-                if (row == 7) {
-                    ChessPosition twoSpace = new ChessPosition(row - 2, col);
-                    if (board.getPiece(twoSpace) == null) {
-                        moves.add(new ChessMove(position, twoSpace, null));
-                    }
-                }
-            }
-            // diagonal attacks
-            if (col < 8) {
-                ChessPosition diagonalRight = new ChessPosition(row - 1, col + 1);
-                if ((board.getPiece(diagonalRight) != null) && (board.getPiece(diagonalRight).getTeamColor() == ChessGame.TeamColor.WHITE)) {
-                    checkPawnPromotionMove(board, position, diagonalRight, moves);
-                }
-            }
-            if (col > 1) {
-                ChessPosition diagonalLeft = new ChessPosition(row - 1, col - 1);
-                if ((board.getPiece(diagonalLeft) != null) && (board.getPiece(diagonalLeft).getTeamColor() == ChessGame.TeamColor.WHITE)) {
-                    checkPawnPromotionMove(board, position, diagonalLeft, moves);
-                }
-            }
-        }
-    }
-
-    private void addRookMoves(ChessBoard board, ChessPosition position, List<ChessMove> moves) {
-        int row = position.getRow();
-        int col = position.getColumn();
-
-        // looking up
-        if (row < 8) {
-            for (int j = row + 1; j <= 8; j++) {
-                ChessPosition endPosition = new ChessPosition(j, col);
-                if (validateMoveAndStop(board, position, endPosition, moves)) { break; }
-            }
-        }
-        // looking down
-        if (row > 1) {
-            for (int j = row - 1; j >= 1; j--) {
-                ChessPosition endPosition = new ChessPosition(j, col);
-                if (validateMoveAndStop(board, position, endPosition, moves)) { break; }
-            }
-        }
-        // looking left
-        if (col > 1) {
-            for (int i = col - 1; i >= 1; i--) {
-                ChessPosition endPosition = new ChessPosition(row, i);
-                if (validateMoveAndStop(board, position, endPosition, moves)) {
-                    break;
-                }
-            }
-        }
-        // looking right
-        if (col < 8) {
-            for (int i = col + 1; i <= 8; i++) {
-                ChessPosition endPosition = new ChessPosition(row, i);
-                if (validateMoveAndStop(board, position, endPosition, moves)) { break; }
-            }
-        }
-    }
-    
-    private void addBishopMoves(ChessBoard board, ChessPosition position, List<ChessMove> moves) {
-        int row = position.getRow();
-        int col = position.getColumn();
-
-        // looking up and right
-        if (row < 8 && col < 8) {
-            for (int k = 1; Math.max(row, col) + k <= 8; k++) {
-                ChessPosition endPosition = new ChessPosition(row + k, col + k);
-                if (validateMoveAndStop(board, position, endPosition, moves)) { break; }
+        int forward = (color == ChessGame.TeamColor.WHITE) ? 8 : -8;
+        int startRow = (color == ChessGame.TeamColor.WHITE) ? 2 : 7;
+
+        // normal move
+        int oneSpace = sq + forward;
+        if (oneSpace >= 0 && oneSpace < 64 && (occupied & (1L << oneSpace)) == 0) {
+            addPawnMove(moves, position, oneSpace);
+            // first move condition
+            int twoSpace = oneSpace + forward;
+            if (position.getRow() == startRow && (occupied & (1L << twoSpace)) == 0) {
+                addPawnMove(moves, position, twoSpace);
             }
         }
-        // looking down and right
-        if (row > 1 && col < 8) {
-            for (int k = 1; (row - k >= 1) && (col + k <= 8); k++) {
-                ChessPosition endPosition = new ChessPosition(row - k, col + k);
-                if (validateMoveAndStop(board, position, endPosition, moves)) { break; }
-            }
-        }
-        // looking up and left
-        if (row < 8 && col > 1) {
-            for (int k = 1; (row + k <= 8) && (col - k >= 1); k++) {
-                ChessPosition endPosition = new ChessPosition(row + k, col - k);
-                if (validateMoveAndStop(board, position, endPosition, moves)) { break; }
-            }
-        }
-        // looking down and left
-        if (row > 1 && col > 1) {
-            for (int k = 1; Math.min(row, col) - k >= 1; k++) {
-                ChessPosition endPosition = new ChessPosition(row - k, col - k);
-                if (validateMoveAndStop(board, position, endPosition, moves)) { break; }
-            }
-        }
-    }
-    
-    private void addKnightMoves(ChessBoard board, ChessPosition position, List<ChessMove> moves) {
-        int row = position.getRow();
-        int col = position.getColumn();
-        int tmprow = -1;
-        int tmpcol = -1;
-
-        // up right
-        tmprow = row + 2;
-        tmpcol = col + 1;
-        if (tmprow <= 8 && tmpcol <= 8) {
-            ChessPosition endPosition = new ChessPosition(tmprow, tmpcol);
-            validateMoveAndStop(board, position, endPosition, moves);
-        }
-        // right up
-        tmprow = row + 1;
-        tmpcol = col + 2;
-        if (tmprow <= 8 && tmpcol <= 8) {
-            ChessPosition endPosition = new ChessPosition(tmprow, tmpcol);
-            validateMoveAndStop(board, position, endPosition, moves);
-        }
-        // down right
-        tmprow = row - 2;
-        tmpcol = col + 1;
-        if (tmprow >= 1 && tmpcol <= 8) {
-            ChessPosition endPosition = new ChessPosition(tmprow, tmpcol);
-            validateMoveAndStop(board, position, endPosition, moves);
-        }
-        // right down
-        tmprow = row - 1;
-        tmpcol = col + 2;
-        if (tmprow >= 1 && tmpcol <= 8) {
-            ChessPosition endPosition = new ChessPosition(tmprow, tmpcol);
-            validateMoveAndStop(board, position, endPosition, moves);
-        }
-        // up left
-        tmprow = row + 2;
-        tmpcol = col - 1;
-        if (tmprow <= 8 && tmpcol >= 1) {
-            ChessPosition endPosition = new ChessPosition(tmprow, tmpcol);
-            validateMoveAndStop(board, position, endPosition, moves);
-        }
-        // left up
-        tmprow = row + 1;
-        tmpcol = col - 2;
-        if (tmprow <= 8 && tmpcol >= 1) {
-            ChessPosition endPosition = new ChessPosition(tmprow, tmpcol);
-            validateMoveAndStop(board, position, endPosition, moves);
-        }
-        // down left
-        tmprow = row - 2;
-        tmpcol = col - 1;
-        if (tmprow >= 1 && tmpcol >= 1) {
-            ChessPosition endPosition = new ChessPosition(tmprow, tmpcol);
-            validateMoveAndStop(board, position, endPosition, moves);
-        }
-        // left down
-        tmprow = row - 1;
-        tmpcol = col - 2;
-        if (tmprow >= 1 && tmpcol >= 1) {
-            ChessPosition endPosition = new ChessPosition(tmprow, tmpcol);
-            validateMoveAndStop(board, position, endPosition, moves);
-        }
-    }
-    
-    private void addQueenMoves(ChessBoard board, ChessPosition position, List<ChessMove> moves) {
-        int row = position.getRow();
-        int col = position.getColumn();
-
-        addRookMoves(board, position, moves);
-        addBishopMoves(board, position, moves);
-    }
-
-    private void validateKingMove(ChessBoard board, ChessPosition position, ChessPosition endPosition, List<ChessMove> moves) {
-        if (((board.getPiece(endPosition)) != null) && (board.getPiece(endPosition).getTeamColor() == this.color)) { // can't capture own team's piece
-            return;
-        }
-        moves.add(new ChessMove(position, endPosition, null)); // if we made it through all of that then it's a safe move
-    }
-
-    private void addKingMoves(ChessBoard board, ChessPosition position, List<ChessMove> moves) {
-        int row = position.getRow();
-        int col = position.getColumn();
-
-        // looking up
-        if (row < 8) {
-            ChessPosition endPosition = new ChessPosition(row + 1, col);
-            validateKingMove(board, position, endPosition, moves);
-        }
-        // looking down
-        if (row > 1) {
-            ChessPosition endPosition = new ChessPosition(row - 1, col);
-            validateKingMove(board, position, endPosition, moves);
-        }
-        // looking left
-        if (col > 1) {
-            ChessPosition endPosition = new ChessPosition(row, col - 1);
-            validateKingMove(board, position, endPosition, moves);
-        }
-        // looking right
-        if (col < 8) {
-            ChessPosition endPosition = new ChessPosition(row, col + 1);
-            validateKingMove(board, position, endPosition, moves);
-        }
-        // looking up and right
-        if (row < 8 && col < 8) {
-            ChessPosition endPosition = new ChessPosition(row +1 , col + 1);
-            validateKingMove(board, position, endPosition, moves);
-        }
-        // looking down and right
-        if (row > 1 && col < 8) {
-            ChessPosition endPosition = new ChessPosition(row - 1, col + 1);
-            validateKingMove(board, position, endPosition, moves);
-        }
-        // looking up and left
-        if (row < 8 && col > 1) {
-            ChessPosition endPosition = new ChessPosition(row + 1, col - 1);
-            validateKingMove(board, position, endPosition, moves);
-        }
-        // looking down and left
-        if (row > 1 && col > 1) {
-            ChessPosition endPosition = new ChessPosition(row - 1, col - 1);
-            validateKingMove(board, position, endPosition, moves);
-        }
-
+        // diagonal attacks
+        long captures = Bitboards.pawnAttacks(color, sq) & board.getOccupancy(color.opponent());
+        while (captures != 0) {
+            int to = Long.numberOfTrailingZeros(captures);
+            captures &= captures - 1;
+            addPawnMove(moves, position, to);
+        }
+    }
+
+    // single-letter symbol, upper case for white and lower case for black
+    public char toChar() {
+        char symbol = switch (type) {
+            case KING -> 'k';
+            case QUEEN -> 'q';
+            case BISHOP -> 'b';
+            case KNIGHT -> 'n';
+            case ROOK -> 'r';
+            case PAWN -> 'p';
+        };
+        return (color == ChessGame.TeamColor.WHITE) ? Character.toUpperCase(symbol) : symbol;
     }
 
     @Override
@@ -0,0 +1,50 @@
+package chess;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Gson adapter that reads pieces back as the shared instances from {@link ChessPiece#of}
+ * <p>
+ * The JSON is the same {@code {"type": ..., "color": ...}} object Gson writes by reflection, so either side of a
+ * connection can use the adapter without the other.
+ */
+public class ChessPieceAdapter extends TypeAdapter<ChessPiece> {
+
+    @Override
+    public void write(JsonWriter out, ChessPiece piece) throws IOException {
+        if (piece == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("type").value(piece.getPieceType().name());
+        out.name("color").value(piece.getTeamColor().name());
+        out.endObject();
+    }
+
+    @Override
+    public ChessPiece read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ChessPiece.PieceType type = null;
+        ChessGame.TeamColor color = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "type" -> type = ChessPiece.PieceType.valueOf(in.nextString());
+                case "color" -> color = ChessGame.TeamColor.valueOf(in.nextString());
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if (type == null || color == null) { throw new IOException("Chess piece needs both a type and a color"); }
+        return ChessPiece.of(color, type);
+    }
+}
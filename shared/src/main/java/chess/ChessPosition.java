@@ -9,8 +9,15 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessPosition {
-    private int row;
-    private int col;
+    // one shared instance per square, indexed the same way as Bitboards squares
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int sq = 0; sq < 64; sq++) { SQUARES[sq] = new ChessPosition(Bitboards.rowOf(sq), Bitboards.columnOf(sq)); }
+    }
+
+    private final int row;
+    private final int col;
 
     public ChessPosition(int row, int col) {
         if (row < 0 || row > 8) { throw new IllegalArgumentException("Row must be between 1 and 8."); }
@@ -20,6 +27,19 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * Returns the shared position for a row and column, so hot loops need not allocate
+     * <p>
+     * Positions are immutable, so the shared instances compare and hash exactly like constructed ones.
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) { return new ChessPosition(row, col); }
+        return SQUARES[Bitboards.square(row, col)];
+    }
+
+    // shared position for a Bitboards square index
+    public static ChessPosition of(int sq) { return SQUARES[sq]; }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
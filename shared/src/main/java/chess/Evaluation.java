@@ -0,0 +1,157 @@
+package chess;
+
+/**
+ * Static evaluation of a position in centipawns, positive when white is better
+ * <p>
+ * The score has four parts. Material and piece-square placement are kept up to date by {@link ChessBoard} as pieces
+ * are placed and removed, so they cost nothing to read. Mobility (squares each knight, bishop, rook and queen can
+ * move to) and king safety (pawn shield and enemy attacks next to the king) depend on the whole position and are
+ * counted from the bitboards when asked for.
+ */
+public final class Evaluation {
+    private Evaluation() {}
+
+    // indexed by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN
+    public static final int[] PIECE_VALUES = {0, 900, 330, 320, 500, 100};
+
+    /*
+     * Piece-square bonuses for white, written as seen from white's side with rank 8 on the first line;
+     * PIECE_SQUARE flips them into square order and mirrors them for black.
+     */
+    private static final int[][] WHITE_TABLES = {
+            { // king
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -20, -30, -30, -40, -40, -30, -30, -20,
+                    -10, -20, -20, -20, -20, -20, -20, -10,
+                     20,  20,   0,   0,   0,   0,  20,  20,
+                     20,  30,  10,   0,   0,  10,  30,  20},
+            { // queen
+                    -20, -10, -10,  -5,  -5, -10, -10, -20,
+                    -10,   0,   0,   0,   0,   0,   0, -10,
+                    -10,   0,   5,   5,   5,   5,   0, -10,
+                     -5,   0,   5,   5,   5,   5,   0,  -5,
+                      0,   0,   5,   5,   5,   5,   0,  -5,
+                    -10,   5,   5,   5,   5,   5,   0, -10,
+                    -10,   0,   5,   0,   0,   0,   0, -10,
+                    -20, -10, -10,  -5,  -5, -10, -10, -20},
+            { // bishop
+                    -20, -10, -10, -10, -10, -10, -10, -20,
+                    -10,   0,   0,   0,   0,   0,   0, -10,
+                    -10,   0,   5,  10,  10,   5,   0, -10,
+                    -10,   5,   5,  10,  10,   5,   5, -10,
+                    -10,   0,  10,  10,  10,  10,   0, -10,
+                    -10,  10,  10,  10,  10,  10,  10, -10,
+                    -10,   5,   0,   0,   0,   0,   5, -10,
+                    -20, -10, -10, -10, -10, -10, -10, -20},
+            { // knight
+                    -50, -40, -30, -30, -30, -30, -40, -50,
+                    -40, -20,   0,   0,   0,   0, -20, -40,
+                    -30,   0,  10,  15,  15,  10,   0, -30,
+                    -30,   5,  15,  20,  20,  15,   5, -30,
+                    -30,   0,  15,  20,  20,  15,   0, -30,
+                    -30,   5,  10,  15,  15,  10,   5, -30,
+                    -40, -20,   0,   5,   5,   0, -20, -40,
+                    -50, -40, -30, -30, -30, -30, -40, -50},
+            { // rook
+                      0,   0,   0,   0,   0,   0,   0,   0,
+                      5,  10,  10,  10,  10,  10,  10,   5,
+                     -5,   0,   0,   0,   0,   0,   0,  -5,
+                     -5,   0,   0,   0,   0,   0,   0,  -5,
+                     -5,   0,   0,   0,   0,   0,   0,  -5,
+                     -5,   0,   0,   0,   0,   0,   0,  -5,
+                     -5,   0,   0,   0,   0,   0,   0,  -5,
+                      0,   0,   0,   5,   5,   0,   0,   0},
+            { // pawn
+                      0,   0,   0,   0,   0,   0,   0,   0,
+                     50,  50,  50,  50,  50,  50,  50,  50,
+                     10,  10,  20,  30,  30,  20,  10,  10,
+                      5,   5,  10,  25,  25,  10,   5,   5,
+                      0,   0,   0,  20,  20,   0,   0,   0,
+                      5,  -5, -10,   0,   0, -10,  -5,   5,
+                      5,  10,  10, -20, -20,  10,  10,   5,
+                      0,   0,   0,   0,   0,   0,   0,   0}
+    };
+
+    // material plus placement of the piece in each ChessBoard slot on each square, positive for white
+    private static final int[][] PIECE_SQUARE = new int[12][64];
+
+    static {
+        for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+            int[] table = WHITE_TABLES[type.ordinal()];
+            for (int sq = 0; sq < 64; sq++) {
+                int whiteRow = sq >>> 3;
+                int col = sq & 7;
+                int white = PIECE_VALUES[type.ordinal()] + table[(7 - whiteRow) * 8 + col];
+                int black = PIECE_VALUES[type.ordinal()] + table[whiteRow * 8 + col];
+                PIECE_SQUARE[ChessBoard.index(ChessGame.TeamColor.WHITE, type)][sq] = white;
+                PIECE_SQUARE[ChessBoard.index(ChessGame.TeamColor.BLACK, type)][sq] = -black;
+            }
+        }
+    }
+
+    // centipawns per reachable square, indexed by PieceType ordinal
+    private static final int[] MOBILITY_WEIGHTS = {0, 1, 4, 4, 2, 0};
+    private static final ChessPiece.PieceType[] MOBILE_TYPES = {
+            ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN
+    };
+    private static final int SHIELD_PAWN = 10;
+    private static final int KING_ZONE_ATTACK = 8;
+
+    // material and placement of one piece, as added to the board's running score
+    public static int pieceSquare(int slot, int sq) { return PIECE_SQUARE[slot][sq]; }
+
+    // full evaluation using the board's running material and placement score
+    public static int evaluate(ChessBoard board) {
+        return board.getPieceSquareScore() + mobility(board) + kingSafety(board);
+    }
+
+    /**
+     * Same score as {@link #evaluate}, but adding up material and placement square by square instead of using the
+     * running total; kept as the baseline the incremental score is checked and benchmarked against
+     */
+    public static int evaluateByRescan(ChessBoard board) {
+        int score = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            int slot = board.pieceIndexAt(sq);
+            if (slot >= 0) { score += PIECE_SQUARE[slot][sq]; }
+        }
+        return score + mobility(board) + kingSafety(board);
+    }
+
+    public static int mobility(ChessBoard board) {
+        return mobility(board, ChessGame.TeamColor.WHITE) - mobility(board, ChessGame.TeamColor.BLACK);
+    }
+
+    private static int mobility(ChessBoard board, ChessGame.TeamColor color) {
+        long occupied = board.getOccupancy();
+        long notOwn = ~board.getOccupancy(color);
+        int score = 0;
+        for (ChessPiece.PieceType type : MOBILE_TYPES) {
+            int weight = MOBILITY_WEIGHTS[type.ordinal()];
+            for (long bits = board.getBitboard(color, type); bits != 0; bits &= bits - 1) {
+                long targets = Bitboards.attacks(type, color, Long.numberOfTrailingZeros(bits), occupied) & notOwn;
+                score += weight * Long.bitCount(targets);
+            }
+        }
+        return score;
+    }
+
+    public static int kingSafety(ChessBoard board) {
+        return kingSafety(board, ChessGame.TeamColor.WHITE) - kingSafety(board, ChessGame.TeamColor.BLACK);
+    }
+
+    // own pawns around the king count for it, enemy attacks on the squares around it against it
+    private static int kingSafety(ChessBoard board, ChessGame.TeamColor color) {
+        int king = board.kingSquare(color);
+        if (king < 0) { return 0; }
+        long zone = Bitboards.kingAttacks(king);
+        int score = SHIELD_PAWN * Long.bitCount(zone & board.getBitboard(color, ChessPiece.PieceType.PAWN));
+        for (long bits = zone; bits != 0; bits &= bits - 1) {
+            if (board.isSquareAttacked(Long.numberOfTrailingZeros(bits), color.opponent())) { score -= KING_ZONE_ATTACK; }
+        }
+        return score;
+    }
+}
@@ -0,0 +1,133 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation
+ */
+public final class Fen {
+    private Fen() {}
+
+    public static final String STARTING_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // builds a game from a FEN string; the halfmove clock is kept, the fullmove number is accepted but not tracked
+    public static ChessGame parse(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 2) { throw new IllegalArgumentException("FEN needs at least a board and a side to move: " + fen); }
+
+        ChessBoard board = new ChessBoard();
+        int row = 8;
+        int col = 1;
+        for (char c : fields[0].toCharArray()) {
+            if (c == '/') {
+                row--;
+                col = 1;
+            } else if (Character.isDigit(c)) {
+                col += c - '0';
+            } else {
+                if (row < 1 || col > 8) { throw new IllegalArgumentException("FEN board runs off the edge: " + fen); }
+                board.setPiece(Bitboards.square(row, col), pieceIndex(c));
+                col++;
+            }
+        }
+
+        ChessGame.TeamColor turn = switch (fields[1]) {
+            case "w" -> ChessGame.TeamColor.WHITE;
+            case "b" -> ChessGame.TeamColor.BLACK;
+            default -> throw new IllegalArgumentException("Unknown side to move: " + fields[1]);
+        };
+
+        int rights = 0;
+        if (fields.length > 2) {
+            for (char c : fields[2].toCharArray()) {
+                switch (c) {
+                    case 'K' -> rights |= ChessBoard.WHITE_KINGSIDE;
+                    case 'Q' -> rights |= ChessBoard.WHITE_QUEENSIDE;
+                    case 'k' -> rights |= ChessBoard.BLACK_KINGSIDE;
+                    case 'q' -> rights |= ChessBoard.BLACK_QUEENSIDE;
+                    case '-' -> { }
+                    default -> throw new IllegalArgumentException("Unknown castling right: " + c);
+                }
+            }
+        }
+
+        // setBoard infers castling rights from the piece placement, so the FEN's own state is applied after it
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(turn);
+        board.setCastlingRights(rights);
+        // dropped when no pawn can take it, as doMove would have, so the position hashes the same however it was reached
+        int enPassant = (fields.length > 3 && !fields[3].equals("-")) ? parseSquare(fields[3]) : -1;
+        board.setEnPassantSquare((enPassant >= 0 && MoveGenerator.isEnPassantCapturable(board, enPassant, turn)) ? enPassant : -1);
+        if (fields.length > 4) { game.setHalfmoveClock(Integer.parseInt(fields[4])); }
+        return game;
+    }
+
+    public static String toFen(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        StringBuilder sb = new StringBuilder();
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.pieceAt(Bitboards.square(row, col));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) { sb.append(empty); }
+                empty = 0;
+                sb.append(piece.toChar());
+            }
+            if (empty > 0) { sb.append(empty); }
+            if (row > 1) { sb.append('/'); }
+        }
+        sb.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+
+        int rights = board.getCastlingRights();
+        if (rights == 0) { sb.append('-'); }
+        if ((rights & ChessBoard.WHITE_KINGSIDE) != 0) { sb.append('K'); }
+        if ((rights & ChessBoard.WHITE_QUEENSIDE) != 0) { sb.append('Q'); }
+        if ((rights & ChessBoard.BLACK_KINGSIDE) != 0) { sb.append('k'); }
+        if ((rights & ChessBoard.BLACK_QUEENSIDE) != 0) { sb.append('q'); }
+
+        int ep = board.getEnPassantSquare();
+        sb.append(' ').append((ep < 0) ? "-" : squareName(ep));
+        return sb.append(' ').append(game.getHalfmoveClock()).append(" 1").toString();
+    }
+
+    // parses a square name such as "e4" into a square index
+    public static int parseSquare(String name) {
+        if (name.length() != 2) { throw new IllegalArgumentException("Not a square: " + name); }
+        int col = name.charAt(0) - 'a' + 1;
+        int row = name.charAt(1) - '0';
+        if (col < 1 || col > 8 || row < 1 || row > 8) {
+            throw new IllegalArgumentException("Not a square: " + name);
+        }
+        return Bitboards.square(row, col);
+    }
+
+    public static String squareName(int sq) {
+        return "" + (char) ('a' + Bitboards.columnOf(sq) - 1) + Bitboards.rowOf(sq);
+    }
+
+    // long algebraic name of a move, e.g. "e2e4" or "e7e8q"
+    public static String moveName(ChessMove move) {
+        String name = squareName(Bitboards.square(move.getStartPosition())) + squareName(Bitboards.square(move.getEndPosition()));
+        if (move.getPromotionPiece() != null) {
+            name += Character.toLowerCase(ChessPiece.of(ChessGame.TeamColor.BLACK, move.getPromotionPiece()).toChar());
+        }
+        return name;
+    }
+
+    private static int pieceIndex(char c) {
+        ChessGame.TeamColor color = Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        ChessPiece.PieceType type = switch (Character.toLowerCase(c)) {
+            case 'k' -> ChessPiece.PieceType.KING;
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'n' -> ChessPiece.PieceType.KNIGHT;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'p' -> ChessPiece.PieceType.PAWN;
+            default -> throw new IllegalArgumentException("Unknown piece: " + c);
+        };
+        return ChessBoard.index(color, type);
+    }
+}
@@ -0,0 +1,104 @@
+package chess;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, process-wide cache of the legal moves of one team in a position
+ * <p>
+ * Entries are keyed by the position's Zobrist key (mixed with the team) and double-checked against the
+ * occupancy bitboard. The cache is 4-way set associative with CLOCK eviction inside each set, so lookups
+ * never allocate and memory stays fixed. Cached move arrays are shared and must not be modified.
+ * The size can be set with the {@code chess.legalMoveCache.entries} system property.
+ */
+public final class LegalMoveCache {
+    private static final int WAYS = 4;
+    private static final int LOCK_STRIPES = 64;
+    private static final LegalMoveCache SHARED = new LegalMoveCache(Integer.getInteger("chess.legalMoveCache.entries", 16384));
+
+    private final int setMask;
+    private final long[] keys;
+    private final long[] checks;
+    private final int[][] moves;
+    private final boolean[] referenced;
+    private final int[] hands;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public LegalMoveCache(int entries) {
+        int sets = Integer.highestOneBit(Math.max(entries / WAYS, 1));
+        this.setMask = sets - 1;
+        this.keys = new long[sets * WAYS];
+        this.checks = new long[sets * WAYS];
+        this.moves = new int[sets * WAYS][];
+        this.referenced = new boolean[sets * WAYS];
+        this.hands = new int[sets];
+        for (int i = 0; i < locks.length; i++) { locks[i] = new Object(); }
+    }
+
+    public static LegalMoveCache shared() { return SHARED; }
+
+    // returns the cached moves for the key, or null on a miss
+    public int[] get(long key, long check) {
+        int set = (int) (key ^ (key >>> 32)) & setMask;
+        int base = set * WAYS;
+        synchronized (locks[set & (LOCK_STRIPES - 1)]) {
+            for (int i = base; i < base + WAYS; i++) {
+                if (moves[i] != null && keys[i] == key && checks[i] == check) {
+                    referenced[i] = true;
+                    hits.increment();
+                    return moves[i];
+                }
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    // stores moves for the key, evicting the first entry in its set that has not been used since the hand last passed
+    public void put(long key, long check, int[] legalMoves) {
+        int set = (int) (key ^ (key >>> 32)) & setMask;
+        int base = set * WAYS;
+        synchronized (locks[set & (LOCK_STRIPES - 1)]) {
+            int victim = -1;
+            for (int i = base; i < base + WAYS && victim < 0; i++) {
+                if (moves[i] == null || (keys[i] == key && checks[i] == check)) { victim = i; }
+            }
+            while (victim < 0) {
+                int hand = base + hands[set];
+                hands[set] = (hands[set] + 1) % WAYS;
+                if (referenced[hand]) { referenced[hand] = false; }
+                else { victim = hand; }
+            }
+            keys[victim] = key;
+            checks[victim] = check;
+            moves[victim] = legalMoves;
+            referenced[victim] = false;
+        }
+    }
+
+    public void clear() {
+        for (int set = 0; set <= setMask; set++) {
+            synchronized (locks[set & (LOCK_STRIPES - 1)]) {
+                for (int i = set * WAYS; i < (set + 1) * WAYS; i++) { moves[i] = null; }
+            }
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    public int capacity() { return keys.length; }
+
+    public long hits() { return hits.sum(); }
+
+    public long misses() { return misses.sum(); }
+
+    @Override
+    public String toString() {
+        return "LegalMoveCache{" +
+                "capacity=" + capacity() +
+                ", hits=" + hits() +
+                ", misses=" + misses() +
+                "}\n";
+    }
+}
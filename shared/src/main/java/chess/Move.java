@@ -0,0 +1,60 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packs a move into an int so move lists can be kept in primitive arrays
+ * <p>
+ * Bits 0-5 hold the start square, bits 6-11 the end square and bits 12-14 the promotion piece's
+ * ordinal plus one (zero when the move does not promote). The bits from 15 up are flags describing the move;
+ * they are filled in by {@link MoveGenerator} and ignored when comparing moves with {@link #sameMove(int, int)}.
+ * Squares are numbered as in {@link Bitboards}.
+ */
+public final class Move {
+    private Move() {}
+
+    // no position has more pseudo-legal moves than this, so it is a safe size for move buffers
+    public static final int MAX_MOVES = 256;
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int DOUBLE_PUSH = 1 << 16;
+    public static final int EN_PASSANT = 1 << 17;
+    public static final int CASTLE = 1 << 18;
+
+    private static final int MOVE_BITS = (1 << 15) - 1;
+
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    public static int encode(int from, int to, ChessPiece.PieceType promotion) {
+        return from | to << 6 | ((promotion == null) ? 0 : promotion.ordinal() + 1) << 12;
+    }
+
+    public static int encode(ChessMove move) {
+        return encode(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()), move.getPromotionPiece());
+    }
+
+    public static int from(int move) { return move & 0x3F; }
+
+    public static int to(int move) { return (move >>> 6) & 0x3F; }
+
+    public static ChessPiece.PieceType promotion(int move) {
+        int promotion = (move >>> 12) & 0x7;
+        return (promotion == 0) ? null : PIECE_TYPES[promotion - 1];
+    }
+
+    public static boolean isCapture(int move) { return (move & CAPTURE) != 0; }
+
+    // true if both encode the same from, to and promotion, whatever their flags
+    public static boolean sameMove(int first, int second) { return (first & MOVE_BITS) == (second & MOVE_BITS); }
+
+    public static ChessMove toChessMove(int move) {
+        return ChessMove.of(from(move), to(move), promotion(move));
+    }
+
+    public static List<ChessMove> toChessMoves(int[] moves, int count) {
+        List<ChessMove> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) { list.add(toChessMove(moves[i])); }
+        return list;
+    }
+}
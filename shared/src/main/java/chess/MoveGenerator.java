@@ -0,0 +1,115 @@
+package chess;
+
+/**
+ * Writes pseudo-legal moves (moves that may still leave the mover's king in check) into a caller-owned buffer
+ * <p>
+ * Moves are encoded with {@link Move}. Nothing is allocated, so a buffer of {@link Move#MAX_MOVES} entries can
+ * be reused for every position.
+ */
+public final class MoveGenerator {
+    private MoveGenerator() {}
+
+    private static final ChessPiece.PieceType[] PIECES = {
+            ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING
+    };
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP
+    };
+
+    // writes the team's pseudo-legal moves starting at buffer[0] and returns how many were written
+    public static int generate(ChessBoard board, ChessGame.TeamColor color, int[] buffer) {
+        long own = board.getOccupancy(color);
+        long enemy = board.getOccupancy(color.opponent());
+        long occupied = own | enemy;
+        int count = generatePawnMoves(board, color, occupied, enemy, buffer, 0);
+        count = generateCastles(board, color, buffer, count);
+        for (ChessPiece.PieceType type : PIECES) {
+            for (long pieces = board.getBitboard(color, type); pieces != 0; pieces &= pieces - 1) {
+                int from = Long.numberOfTrailingZeros(pieces);
+                long targets = Bitboards.attacks(type, color, from, occupied) & ~own;
+                for (; targets != 0; targets &= targets - 1) {
+                    int to = Long.numberOfTrailingZeros(targets);
+                    int flags = ((enemy & (1L << to)) != 0) ? Move.CAPTURE : 0;
+                    buffer[count++] = Move.encode(from, to, null) | flags;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int generatePawnMoves(ChessBoard board, ChessGame.TeamColor color, long occupied, long enemy, int[] buffer, int count) {
+        int forward = (color == ChessGame.TeamColor.WHITE) ? 8 : -8;
+        int startRow = (color == ChessGame.TeamColor.WHITE) ? 2 : 7;
+        for (long pawns = board.getBitboard(color, ChessPiece.PieceType.PAWN); pawns != 0; pawns &= pawns - 1) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            int oneSpace = from + forward;
+            if (oneSpace >= 0 && oneSpace < 64 && (occupied & (1L << oneSpace)) == 0) {
+                count = addPawnMove(from, oneSpace, 0, buffer, count);
+                int twoSpace = oneSpace + forward;
+                if (Bitboards.rowOf(from) == startRow && (occupied & (1L << twoSpace)) == 0) {
+                    buffer[count++] = Move.encode(from, twoSpace, null) | Move.DOUBLE_PUSH;
+                }
+            }
+            for (long captures = Bitboards.pawnAttacks(color, from) & enemy; captures != 0; captures &= captures - 1) {
+                count = addPawnMove(from, Long.numberOfTrailingZeros(captures), Move.CAPTURE, buffer, count);
+            }
+            if (canCaptureEnPassant(board, color, from)) {
+                buffer[count++] = Move.encode(from, board.getEnPassantSquare(), null) | Move.CAPTURE | Move.EN_PASSANT;
+            }
+        }
+        return count;
+    }
+
+    // true if a pawn of the capturing team stands where it could take en passant onto the square; doMove and FEN parsing
+    // only record an en passant square that passes this, so the same position always has the same Zobrist key
+    public static boolean isEnPassantCapturable(ChessBoard board, int sq, ChessGame.TeamColor capturer) {
+        return (Bitboards.pawnAttacks(capturer.opponent(), sq) & board.getBitboard(capturer, ChessPiece.PieceType.PAWN)) != 0;
+    }
+
+    // true if the pawn on the square may capture onto the board's en passant square this turn
+    public static boolean canCaptureEnPassant(ChessBoard board, ChessGame.TeamColor color, int from) {
+        int ep = board.getEnPassantSquare();
+        return ep >= 0 && color == board.getSideToMove() && (Bitboards.pawnAttacks(color, from) & (1L << ep)) != 0;
+    }
+
+    private static int generateCastles(ChessBoard board, ChessGame.TeamColor color, int[] buffer, int count) {
+        int king = board.kingSquare(color);
+        if (canCastle(board, color, true)) { buffer[count++] = Move.encode(king, king + 2, null) | Move.CASTLE; }
+        if (canCastle(board, color, false)) { buffer[count++] = Move.encode(king, king - 2, null) | Move.CASTLE; }
+        return count;
+    }
+
+    /**
+     * Checks every castling rule except the final square being attacked, which the legality filter catches:
+     * the right has not been lost, the squares between king and rook are empty, and the king is neither in
+     * check nor passing over an attacked square.
+     */
+    public static boolean canCastle(ChessBoard board, ChessGame.TeamColor color, boolean kingside) {
+        boolean white = color == ChessGame.TeamColor.WHITE;
+        int right = white ? (kingside ? ChessBoard.WHITE_KINGSIDE : ChessBoard.WHITE_QUEENSIDE)
+                : (kingside ? ChessBoard.BLACK_KINGSIDE : ChessBoard.BLACK_QUEENSIDE);
+        if ((board.getCastlingRights() & right) == 0) { return false; }
+        int king = white ? 4 : 60;
+        int rook = kingside ? king + 3 : king - 4;
+        if (board.pieceIndexAt(king) != ChessBoard.index(color, ChessPiece.PieceType.KING)
+                || board.pieceIndexAt(rook) != ChessBoard.index(color, ChessPiece.PieceType.ROOK)) { return false; }
+
+        long between = kingside ? (0x60L << (king - 4)) : (0x0EL << (king - 4));
+        if ((board.getOccupancy() & between) != 0) { return false; }
+        int step = kingside ? 1 : -1;
+        ChessGame.TeamColor enemy = color.opponent();
+        return !board.isSquareAttacked(king, enemy) && !board.isSquareAttacked(king + step, enemy);
+    }
+
+    // adds a pawn move, expanded into one move per promotion piece when it reaches the last row
+    private static int addPawnMove(int from, int to, int flags, int[] buffer, int count) {
+        int row = Bitboards.rowOf(to);
+        if (row == 8 || row == 1) {
+            for (ChessPiece.PieceType promotion : PROMOTIONS) { buffer[count++] = Move.encode(from, to, promotion) | flags; }
+        } else {
+            buffer[count++] = Move.encode(from, to, null) | flags;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,109 @@
+package chess;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth, which both checks the move generator
+ * against published reference counts and measures how fast it runs. Moves come straight from
+ * {@link ChessGame#generateLegalMoves(int[])} rather than validMoves, which serves positions it has seen before from
+ * the {@link LegalMoveCache}; the counts would then miss generator bugs and the timings would mostly be cache hits.
+ * <p>
+ * Usage: {@code java -cp shared.jar chess.Perft <depth> [startpos|kiwipete|FEN...] [--divide] [--encoded]}
+ * where {@code --encoded} plays the encoded moves without building a ChessMove for each one.
+ */
+public final class Perft {
+    private Perft() {}
+
+    public static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    public static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    public static final String POSITION_4 = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+    public static final String POSITION_5 = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+    public static final String POSITION_6 = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+
+    // number of leaf positions reachable in exactly depth moves, each played as a ChessMove
+    public static long perft(ChessGame game, int depth) {
+        if (depth == 0) { return 1; }
+        int[] moves = new int[Move.MAX_MOVES];
+        int count = game.generateLegalMoves(moves);
+        if (depth == 1) { return count; }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            long undo = game.doMove(Move.toChessMove(moves[i]));
+            nodes += perft(game, depth - 1);
+            game.undoMove(undo);
+        }
+        return nodes;
+    }
+
+    // same count as perft, walked with the allocation-free generator and one reusable buffer per ply
+    public static long perftEncoded(ChessGame game, int depth) {
+        int[][] buffers = new int[Math.max(depth, 1)][Move.MAX_MOVES];
+        return perftEncoded(game, depth, buffers);
+    }
+
+    private static long perftEncoded(ChessGame game, int depth, int[][] buffers) {
+        if (depth == 0) { return 1; }
+        int[] moves = buffers[depth - 1];
+        int count = game.generateLegalMoves(moves);
+        if (depth == 1) { return count; }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            long undo = game.doMove(moves[i]);
+            nodes += perftEncoded(game, depth - 1, buffers);
+            game.undoMove(undo);
+        }
+        return nodes;
+    }
+
+    // leaf counts below each root move, keyed by move name, for locating generator bugs
+    public static Map<String, Long> divide(ChessGame game, int depth) {
+        Map<String, Long> counts = new TreeMap<>();
+        int[] moves = new int[Move.MAX_MOVES];
+        int count = game.generateLegalMoves(moves);
+        for (int i = 0; i < count; i++) {
+            ChessMove move = Move.toChessMove(moves[i]);
+            long undo = game.doMove(move);
+            counts.put(Fen.moveName(move), perft(game, depth - 1));
+            game.undoMove(undo);
+        }
+        return counts;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: chess.Perft <depth> [startpos|kiwipete|FEN...] [--divide] [--encoded]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        boolean showDivide = false;
+        boolean encoded = false;
+        StringBuilder fen = new StringBuilder();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--divide")) { showDivide = true; }
+            else if (args[i].equals("--encoded")) { encoded = true; }
+            else { fen.append(args[i]).append(' '); }
+        }
+        String position = switch (fen.toString().trim()) {
+            case "", "startpos" -> Fen.STARTING_POSITION;
+            case "kiwipete" -> KIWIPETE;
+            default -> fen.toString().trim();
+        };
+        ChessGame game = Fen.parse(position);
+
+        long start = System.nanoTime();
+        long nodes;
+        if (showDivide) {
+            nodes = 0;
+            for (Map.Entry<String, Long> entry : divide(game, depth).entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+                nodes += entry.getValue();
+            }
+        } else {
+            nodes = encoded ? perftEncoded(game, depth) : perft(game, depth);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%nPosition: %s%nDepth: %d%nNodes: %d%nTime: %.3f s%nNodes/second: %.0f%n",
+                position, depth, nodes, seconds, nodes / Math.max(seconds, 1e-9));
+    }
+}
@@ -0,0 +1,44 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing of positions
+ * <p>
+ * The keys come from a fixed seed so a position hashes to the same value in every process, which lets hashes
+ * be stored alongside games or written into files.
+ */
+public final class Zobrist {
+    private Zobrist() {}
+
+    // indexed [bitboard slot * 64 + square]
+    static final long[] PIECE_SQUARE = new long[12 * 64];
+    static final long BLACK_TO_MOVE;
+    // indexed by the full castling rights bit set
+    static final long[] CASTLING = new long[16];
+    // indexed by column - 1 of the en passant square
+    static final long[] EN_PASSANT_FILE = new long[8];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C4E5_5L);
+        for (int i = 0; i < PIECE_SQUARE.length; i++) { PIECE_SQUARE[i] = random.nextLong(); }
+        BLACK_TO_MOVE = random.nextLong();
+        long[] rightKeys = {random.nextLong(), random.nextLong(), random.nextLong(), random.nextLong()};
+        for (int rights = 0; rights < 16; rights++) {
+            for (int bit = 0; bit < 4; bit++) {
+                if ((rights & (1 << bit)) != 0) { CASTLING[rights] ^= rightKeys[bit]; }
+            }
+        }
+        for (int i = 0; i < EN_PASSANT_FILE.length; i++) { EN_PASSANT_FILE[i] = random.nextLong(); }
+    }
+
+    static long pieceKey(int slot, int sq) { return PIECE_SQUARE[slot * 64 + sq]; }
+
+    // key for everything in a position except the pieces
+    static long stateKey(ChessGame.TeamColor sideToMove, int castlingRights, int enPassantSquare) {
+        long key = CASTLING[castlingRights];
+        if (sideToMove == ChessGame.TeamColor.BLACK) { key ^= BLACK_TO_MOVE; }
+        if (enPassantSquare >= 0) { key ^= EN_PASSANT_FILE[enPassantSquare & 7]; }
+        return key;
+    }
+}
@@ -0,0 +1,23 @@
+package chess.search;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Evaluation;
+
+/**
+ * Static evaluation used at the leaves of the search: the board's running material and piece-square score
+ * <p>
+ * Mobility and king safety from {@link Evaluation} are left out here because they cost a scan of the position at
+ * every leaf. Scores are in centipawns from the point of view of the side to move.
+ */
+public final class Evaluator {
+    private Evaluator() {}
+
+    public static int evaluate(ChessBoard board) {
+        int score = board.getPieceSquareScore();
+        return (board.getSideToMove() == ChessGame.TeamColor.WHITE) ? score : -score;
+    }
+
+    public static int pieceValue(ChessPiece.PieceType type) { return Evaluation.PIECE_VALUES[type.ordinal()]; }
+}
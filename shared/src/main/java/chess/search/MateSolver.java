@@ -0,0 +1,145 @@
+package chess.search;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Move;
+
+/**
+ * Proves or refutes a forced mate by the side to move within a number of its own moves
+ * <p>
+ * This is an exhaustive AND/OR search over the legal moves ChessGame generates: at the attacker's turns one move
+ * that mates by force is enough, at the defender's turns every reply must still lose. Attacker positions are
+ * recorded in a {@link TranspositionTable} as proven (mate within the stored number of moves) or refuted (no mate
+ * within it), so subpositions reached by transposition or in a later iteration are not proved again. Mates are
+ * searched for with 1, 2, ... moves in turn, so the mate reported is the shortest.
+ * <p>
+ * One solver can be used by several threads at once; only the table is shared between solves.
+ */
+public class MateSolver {
+    private static final int PROVEN = TranspositionTable.LOWER_BOUND;
+    private static final int REFUTED = TranspositionTable.UPPER_BOUND;
+
+    public enum Outcome {
+        MATE,
+        NO_MATE,
+        // the node budget ran out before the search finished
+        UNKNOWN
+    }
+
+    /**
+     * @param outcome    whether a mate was proven, refuted or neither
+     * @param firstMove  attacker's first move of the shortest mate, or null
+     * @param mateInMoves number of attacker moves the mate takes, or 0
+     * @param nodes      positions visited
+     */
+    public record Result(Outcome outcome, ChessMove firstMove, int mateInMoves, long nodes) {}
+
+    private final TranspositionTable table;
+
+    public MateSolver(int tableMegabytes) { this.table = new TranspositionTable(tableMegabytes); }
+
+    public MateSolver(TranspositionTable table) { this.table = table; }
+
+    public Result solve(ChessGame game, int maxMoves) { return solve(game, maxMoves, Long.MAX_VALUE); }
+
+    public Result solve(ChessGame game, int maxMoves, long maxNodes) {
+        if (maxMoves < 1 || maxMoves > SearchLimits.MAX_DEPTH / 2) {
+            throw new IllegalArgumentException("Mate length must be between 1 and " + SearchLimits.MAX_DEPTH / 2);
+        }
+        Solve solve = new Solve(new ChessGame(game), maxMoves, maxNodes);
+        int[] rootMoves = solve.moves[0];
+        int count = solve.game.generateLegalMoves(rootMoves);
+        for (int n = 1; n <= maxMoves; n++) {
+            for (int i = 0; i < count; i++) {
+                long undo = solve.game.doMove(rootMoves[i]);
+                boolean mates = solve.defenderLoses(n - 1, 1);
+                solve.game.undoMove(undo);
+                if (solve.stopped) { return new Result(Outcome.UNKNOWN, null, 0, solve.nodes); }
+                if (mates) { return new Result(Outcome.MATE, Move.toChessMove(rootMoves[i]), n, solve.nodes); }
+            }
+        }
+        return new Result(Outcome.NO_MATE, null, 0, solve.nodes);
+    }
+
+    public TranspositionTable getTable() { return table; }
+
+    // state of one call to solve, so concurrent solves share nothing but the table
+    private final class Solve {
+        private final ChessGame game;
+        private final int[][] moves;
+        private final long maxNodes;
+        private long nodes;
+        private boolean stopped;
+
+        private Solve(ChessGame game, int maxMoves, long maxNodes) {
+            this.game = game;
+            this.moves = new int[maxMoves * 2 + 1][Move.MAX_MOVES];
+            this.maxNodes = maxNodes;
+        }
+
+        // true if the attacker, to move, mates within n of its moves against any defence
+        private boolean attackerWins(int n, int ply) {
+            if (n == 0) { return false; }
+            long key = game.getZobristKey();
+            long entry = table.probe(key);
+            if (entry != 0) {
+                int bound = TranspositionTable.bound(entry);
+                int depth = TranspositionTable.depth(entry);
+                if (bound == PROVEN && depth <= n) { return true; }
+                if (bound == REFUTED && depth >= n) { return false; }
+            }
+            if (++nodes > maxNodes) {
+                stopped = true;
+                return false;
+            }
+
+            int[] list = moves[ply];
+            int count = game.generateLegalMoves(list);
+            // try the move that mated last time first
+            int hashMove = (entry != 0) ? TranspositionTable.move(entry) : 0;
+            for (int j = 1; hashMove != 0 && j < count; j++) {
+                if (Move.sameMove(list[j], hashMove)) {
+                    int first = list[0];
+                    list[0] = list[j];
+                    list[j] = first;
+                    break;
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                int move = list[i];
+                long undo = game.doMove(move);
+                boolean wins = defenderLoses(n - 1, ply + 1);
+                game.undoMove(undo);
+                if (stopped) { return false; }
+                if (wins) {
+                    table.store(key, n, PROVEN, 0, move);
+                    return true;
+                }
+            }
+            table.store(key, n, REFUTED, 0, 0);
+            return false;
+        }
+
+        // true if every reply of the defender, to move, still allows mate within n attacker moves
+        private boolean defenderLoses(int n, int ply) {
+            if (++nodes > maxNodes) {
+                stopped = true;
+                return false;
+            }
+            boolean inCheck = game.isInCheck(game.getTeamTurn());
+            // with no attacker moves left only mate on the board counts, and that needs check
+            if (n == 0 && !inCheck) { return false; }
+            int[] list = moves[ply];
+            int count = game.generateLegalMoves(list);
+            if (count == 0) { return inCheck; }
+            if (n == 0) { return false; }
+            for (int i = 0; i < count; i++) {
+                long undo = game.doMove(list[i]);
+                boolean loses = attackerWins(n, ply + 1);
+                game.undoMove(undo);
+                if (stopped || !loses) { return false; }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package chess.search;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.Fen;
+import chess.InvalidMoveException;
+import chess.Move;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Opening book of weighted moves, read straight from a memory-mapped file
+ * <p>
+ * The file is a 16-byte header (magic, version, entry count) followed by 16-byte entries of position key,
+ * move and weight, sorted by key and then by weight, highest first. A lookup binary searches the mapped file for the
+ * position's Zobrist key, so it touches a handful of pages and nothing is copied onto the heap. Moves are checked
+ * against the position's legal moves before they are returned, so a key collision cannot suggest an illegal move.
+ * <p>
+ * Usage: {@code java -cp shared.jar chess.search.OpeningBook lines.txt book.bin [maxPlies]}
+ */
+public final class OpeningBook {
+    private static final int MAGIC = 0x4348424B; // "CHBK"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int ENTRY_BYTES = 16;
+
+    public record BookMove(ChessMove move, int weight) {}
+
+    private final ByteBuffer entries;
+    private final int count;
+
+    private OpeningBook(ByteBuffer entries, int count) {
+        this.entries = entries;
+        this.count = count;
+    }
+
+    // maps a book file read-only; the mapping stays valid after the channel is closed
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.BIG_ENDIAN);
+            if (channel.size() < HEADER_BYTES || mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            long count = mapped.getLong(8);
+            if (count < 0 || HEADER_BYTES + count * ENTRY_BYTES > channel.size()) {
+                throw new IOException("Opening book is truncated: " + file);
+            }
+            return new OpeningBook(mapped.slice(HEADER_BYTES, (int) count * ENTRY_BYTES), (int) count);
+        }
+    }
+
+    public int size() { return count; }
+
+    // the book's legal moves for the position, highest weight first; empty if the position is not in the book
+    public List<BookMove> lookup(ChessGame game) {
+        long key = game.getZobristKey();
+        int index = lowerBound(key);
+        if (index == count || keyAt(index) != key) { return List.of(); }
+
+        int[] legal = new int[Move.MAX_MOVES];
+        int legalCount = game.generateLegalMoves(legal);
+        List<BookMove> moves = new ArrayList<>();
+        for (; index < count && keyAt(index) == key; index++) {
+            int move = entries.getInt(index * ENTRY_BYTES + 8);
+            for (int i = 0; i < legalCount; i++) {
+                if (Move.sameMove(legal[i], move)) {
+                    moves.add(new BookMove(Move.toChessMove(move), entries.getInt(index * ENTRY_BYTES + 12)));
+                    break;
+                }
+            }
+        }
+        return moves;
+    }
+
+    // the most played book move for the position, or null if it is out of book
+    public ChessMove bestMove(ChessGame game) {
+        List<BookMove> moves = lookup(game);
+        return moves.isEmpty() ? null : moves.get(0).move();
+    }
+
+    // a book move chosen with probability proportional to its weight, or null if the position is out of book
+    public ChessMove randomMove(ChessGame game, Random random) {
+        List<BookMove> moves = lookup(game);
+        long total = 0;
+        for (BookMove move : moves) { total += move.weight(); }
+        if (total <= 0) { return null; }
+        long pick = (long) (random.nextDouble() * total);
+        for (BookMove move : moves) {
+            pick -= move.weight();
+            if (pick < 0) { return move.move(); }
+        }
+        return moves.get(moves.size() - 1).move();
+    }
+
+    private long keyAt(int index) { return entries.getLong(index * ENTRY_BYTES); }
+
+    // first entry whose key is not less than the given key
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keyAt(middle) < key) { low = middle + 1; }
+            else { high = middle; }
+        }
+        return low;
+    }
+
+    /**
+     * Collects weighted moves and writes them out as a sorted book file
+     */
+    public static final class Builder {
+        // position key -> move -> weight
+        private final Map<Long, Map<Integer, Integer>> positions = new HashMap<>();
+
+        public Builder add(ChessGame game, ChessMove move, int weight) {
+            positions.computeIfAbsent(game.getZobristKey(), k -> new HashMap<>())
+                    .merge(Move.encode(move) & 0x7FFF, weight, Integer::sum);
+            return this;
+        }
+
+        /**
+         * Adds every line of a text file, one game per line, each move in long algebraic form ("e2e4 e7e5 g1f3"),
+         * counting each move played as one unit of weight; text after '#' is ignored
+         *
+         * @param maxPlies how many half-moves of each line to keep
+         */
+        public Builder addLines(Reader text, int maxPlies) throws IOException {
+            BufferedReader reader = new BufferedReader(text);
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                int comment = line.indexOf('#');
+                if (comment >= 0) { line = line.substring(0, comment); }
+                if (line.isBlank()) { continue; }
+                ChessGame game = new ChessGame();
+                String[] moves = line.trim().split("\\s+");
+                for (int ply = 0; ply < moves.length && ply < maxPlies; ply++) {
+                    ChessMove move = parseMove(moves[ply]);
+                    add(game, move, 1);
+                    try {
+                        game.makeMove(move);
+                    } catch (InvalidMoveException e) {
+                        throw new IOException("Line " + lineNumber + ": illegal move " + moves[ply], e);
+                    }
+                }
+            }
+            return this;
+        }
+
+        public int size() {
+            int size = 0;
+            for (Map<Integer, Integer> moves : positions.values()) { size += moves.size(); }
+            return size;
+        }
+
+        public void write(Path file) throws IOException {
+            List<long[]> rows = new ArrayList<>();
+            for (Map.Entry<Long, Map<Integer, Integer>> position : positions.entrySet()) {
+                for (Map.Entry<Integer, Integer> move : position.getValue().entrySet()) {
+                    rows.add(new long[]{position.getKey(), move.getKey(), move.getValue()});
+                }
+            }
+            rows.sort(Comparator.<long[]>comparingLong(row -> row[0]).thenComparing(row -> -row[2]).thenComparingLong(row -> row[1]));
+
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + rows.size() * ENTRY_BYTES).order(ByteOrder.BIG_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(rows.size());
+            for (long[] row : rows) { buffer.putLong(row[0]).putInt((int) row[1]).putInt((int) row[2]); }
+            buffer.flip();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) { channel.write(buffer); }
+            }
+        }
+
+        private static ChessMove parseMove(String name) throws IOException {
+            if (name.length() < 4 || name.length() > 5) { throw new IOException("Not a move: " + name); }
+            try {
+                int from = Fen.parseSquare(name.substring(0, 2));
+                int to = Fen.parseSquare(name.substring(2, 4));
+                ChessMove move = ChessMove.of(from, to, null);
+                if (name.length() == 5) {
+                    move = ChessMove.of(from, to, switch (name.charAt(4)) {
+                        case 'q' -> ChessPiece.PieceType.QUEEN;
+                        case 'r' -> ChessPiece.PieceType.ROOK;
+                        case 'b' -> ChessPiece.PieceType.BISHOP;
+                        case 'n' -> ChessPiece.PieceType.KNIGHT;
+                        default -> throw new IOException("Unknown promotion in " + name);
+                    });
+                }
+                return move;
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Not a move: " + name, e);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: OpeningBook <lines.txt> <book.bin> [maxPlies]");
+            return;
+        }
+        int maxPlies = (args.length > 2) ? Integer.parseInt(args[2]) : 16;
+        Builder builder = new Builder();
+        try (Reader reader = new FileReader(args[0])) { builder.addLines(reader, maxPlies); }
+        builder.write(Path.of(args[1]));
+        System.out.printf("Wrote %d book moves to %s%n", builder.size(), args[1]);
+    }
+}
@@ -0,0 +1,204 @@
+package chess.search;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Evaluation;
+import chess.Move;
+
+/**
+ * Negamax alpha-beta search with iterative deepening and quiescence
+ * <p>
+ * Moves are tried in the order: best move of the previous iteration, captures by most valuable victim and least
+ * valuable attacker (MVV-LVA), the two killer moves of the ply, then quiet moves by history score. The search runs
+ * on a copy of the game and stops at the first of the limits in {@link SearchLimits} it reaches, returning the
+ * best move of the deepest iteration that finished.
+ * <p>
+ * An instance keeps its killer and history tables between calls and is not thread-safe; give each thread its own.
+ */
+public class Search {
+    public static final int MATE = 100_000;
+    private static final int INFINITY = MATE + 1;
+    // how often, in nodes, the clock is read
+    private static final int CHECK_INTERVAL = 1024;
+
+    private static final int CAPTURE_ORDER = 1 << 24;
+    private static final int KILLER_ORDER = 1 << 23;
+
+    private final int[][] moves = new int[SearchLimits.MAX_DEPTH * 2][Move.MAX_MOVES];
+    private final int[][] orderScores = new int[SearchLimits.MAX_DEPTH * 2][Move.MAX_MOVES];
+    private final int[][] killers = new int[SearchLimits.MAX_DEPTH * 2][2];
+    private final int[][][] history = new int[2][64][64];
+
+    private ChessGame game;
+    private long nodes;
+    private long deadline;
+    private long nodeLimit;
+    private boolean stopped;
+    private int rootBest;
+
+    // convenience for one-off searches; callers searching repeatedly should reuse an instance
+    public static ChessMove findBestMove(ChessGame game, SearchLimits limits) { return new Search().bestMove(game, limits); }
+
+    // best move for the side to move, or null if it has none
+    public ChessMove bestMove(ChessGame game, SearchLimits limits) { return search(game, limits).bestMove(); }
+
+    public SearchResult search(ChessGame position, SearchLimits limits) {
+        long start = System.currentTimeMillis();
+        this.game = new ChessGame(position);
+        this.nodes = 0;
+        this.deadline = (limits.timeMillis() > 0) ? start + limits.timeMillis() : Long.MAX_VALUE;
+        this.nodeLimit = (limits.maxNodes() > 0) ? limits.maxNodes() : Long.MAX_VALUE;
+        this.stopped = false;
+        this.rootBest = 0;
+        ageHistory();
+        for (int[] plyKillers : killers) { plyKillers[0] = plyKillers[1] = 0; }
+
+        int count = game.generateLegalMoves(moves[0]);
+        if (count == 0) {
+            int score = game.isInCheck(game.getTeamTurn()) ? -MATE : 0;
+            return new SearchResult(null, score, 0, 0, System.currentTimeMillis() - start);
+        }
+
+        int bestMove = moves[0][0];
+        int bestScore = 0;
+        int completed = 0;
+        for (int depth = 1; depth <= limits.maxDepth(); depth++) {
+            int score = negamax(depth, -INFINITY, INFINITY, 0);
+            if (stopped) { break; }
+            bestMove = rootBest;
+            bestScore = score;
+            completed = depth;
+            // a forced mate found at this depth will not get shorter with more depth
+            if (Math.abs(score) >= MATE - depth) { break; }
+        }
+        return new SearchResult(Move.toChessMove(bestMove), bestScore, completed, nodes, System.currentTimeMillis() - start);
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if (depth <= 0) { return quiescence(alpha, beta, ply); }
+        if (outOfBudget()) { return 0; }
+
+        ChessGame.TeamColor color = game.getTeamTurn();
+        int[] list = moves[ply];
+        int count = game.generateLegalMoves(list);
+        if (count == 0) { return game.isInCheck(color) ? -MATE + ply : 0; }
+        if (ply >= moves.length - 1) { return Evaluator.evaluate(game.getBoard()); }
+
+        scoreMoves(list, count, ply, color, (ply == 0) ? rootBest : 0);
+        int best = -INFINITY;
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(list, orderScores[ply], i, count);
+            long undo = game.doMove(move);
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            game.undoMove(undo);
+            if (stopped) { return 0; }
+
+            if (score > best) {
+                best = score;
+                if (ply == 0) { rootBest = move; }
+            }
+            if (score > alpha) { alpha = score; }
+            if (alpha >= beta) {
+                if (!Move.isCapture(move)) {
+                    if (!Move.sameMove(killers[ply][0], move)) {
+                        killers[ply][1] = killers[ply][0];
+                        killers[ply][0] = move;
+                    }
+                    history[color.ordinal()][Move.from(move)][Move.to(move)] += depth * depth;
+                }
+                break;
+            }
+        }
+        return best;
+    }
+
+    // searches captures and promotions only, so the evaluation is never taken in the middle of an exchange
+    private int quiescence(int alpha, int beta, int ply) {
+        if (outOfBudget()) { return 0; }
+        int standPat = Evaluator.evaluate(game.getBoard());
+        if (standPat >= beta || ply >= moves.length - 1) { return standPat; }
+        if (standPat > alpha) { alpha = standPat; }
+
+        ChessGame.TeamColor color = game.getTeamTurn();
+        int[] list = moves[ply];
+        int total = game.generateLegalMoves(list);
+        int count = 0;
+        for (int i = 0; i < total; i++) {
+            if (Move.isCapture(list[i]) || Move.promotion(list[i]) != null) { list[count++] = list[i]; }
+        }
+
+        scoreMoves(list, count, ply, color, 0);
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(list, orderScores[ply], i, count);
+            long undo = game.doMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            game.undoMove(undo);
+            if (stopped) { return 0; }
+            if (score >= beta) { return score; }
+            if (score > alpha) { alpha = score; }
+        }
+        return alpha;
+    }
+
+    private void scoreMoves(int[] list, int count, int ply, ChessGame.TeamColor color, int hashMove) {
+        ChessBoard board = game.getBoard();
+        int[] scores = orderScores[ply];
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            int score;
+            if (hashMove != 0 && Move.sameMove(move, hashMove)) {
+                score = Integer.MAX_VALUE;
+            } else if (Move.isCapture(move) || Move.promotion(move) != null) {
+                int victim = board.pieceIndexAt(Move.to(move));
+                int victimValue = (victim < 0) ? Evaluation.PIECE_VALUES[5] : Evaluation.PIECE_VALUES[victim % 6];
+                if (!Move.isCapture(move)) { victimValue = 0; }
+                int attackerValue = Evaluation.PIECE_VALUES[board.pieceIndexAt(Move.from(move)) % 6];
+                int promotionValue = (Move.promotion(move) == null) ? 0 : Evaluator.pieceValue(Move.promotion(move));
+                score = CAPTURE_ORDER + (victimValue + promotionValue) * 16 - attackerValue / 10;
+            } else if (Move.sameMove(move, killers[ply][0])) {
+                score = KILLER_ORDER + 1;
+            } else if (Move.sameMove(move, killers[ply][1])) {
+                score = KILLER_ORDER;
+            } else {
+                score = Math.min(history[color.ordinal()][Move.from(move)][Move.to(move)], KILLER_ORDER - 1);
+            }
+            scores[i] = score;
+        }
+    }
+
+    // selection sort one step at a time: swaps the best remaining move into position i and returns it
+    private static int pickNext(int[] list, int[] scores, int i, int count) {
+        int best = i;
+        for (int j = i + 1; j < count; j++) {
+            if (scores[j] > scores[best]) { best = j; }
+        }
+        int move = list[best];
+        list[best] = list[i];
+        list[i] = move;
+        int score = scores[best];
+        scores[best] = scores[i];
+        scores[i] = score;
+        return move;
+    }
+
+    private boolean outOfBudget() {
+        if (stopped) { return true; }
+        nodes++;
+        if (nodes >= nodeLimit || (nodes % CHECK_INTERVAL == 0 && System.currentTimeMillis() >= deadline)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    // halves the history scores so that earlier searches still count, but less than the current one
+    private void ageHistory() {
+        for (int[][] side : history) {
+            for (int[] from : side) {
+                for (int to = 0; to < 64; to++) { from[to] >>= 1; }
+            }
+        }
+    }
+
+    public long getNodes() { return nodes; }
+}
@@ -0,0 +1,27 @@
+package chess.search;
+
+/**
+ * How far a search may go; it stops at whichever limit it reaches first
+ *
+ * @param maxDepth  deepest iteration to complete, in plies
+ * @param timeMillis wall-clock budget in milliseconds, or 0 for none
+ * @param maxNodes  number of positions to visit, or 0 for none
+ */
+public record SearchLimits(int maxDepth, long timeMillis, long maxNodes) {
+    public static final int MAX_DEPTH = 64;
+
+    public SearchLimits {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) { throw new IllegalArgumentException("Depth must be between 1 and " + MAX_DEPTH); }
+        if (timeMillis < 0 || maxNodes < 0) { throw new IllegalArgumentException("Budgets cannot be negative"); }
+    }
+
+    public static SearchLimits depth(int depth) { return new SearchLimits(depth, 0, 0); }
+
+    public static SearchLimits time(long millis) { return new SearchLimits(MAX_DEPTH, millis, 0); }
+
+    public static SearchLimits nodes(long nodes) { return new SearchLimits(MAX_DEPTH, 0, nodes); }
+
+    public SearchLimits withTime(long millis) { return new SearchLimits(maxDepth, millis, maxNodes); }
+
+    public SearchLimits withNodes(long nodes) { return new SearchLimits(maxDepth, timeMillis, nodes); }
+}
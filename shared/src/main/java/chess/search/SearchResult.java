@@ -0,0 +1,23 @@
+package chess.search;
+
+import chess.ChessMove;
+
+/**
+ * Outcome of a search
+ *
+ * @param bestMove best move found, or null if the side to move has no legal moves
+ * @param score    centipawns from the side to move's point of view; mates score near {@link Search#MATE}
+ * @param depth    deepest iteration that finished
+ * @param nodes    positions visited, including quiescence
+ * @param millis   time spent searching
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes, long millis) {
+
+    public boolean isMate() { return Math.abs(score) >= Search.MATE - SearchLimits.MAX_DEPTH * 2; }
+
+    // plies until mate, positive when the side to move delivers it; 0 if the score is not a mate
+    public int matePlies() {
+        if (!isMate()) { return 0; }
+        return (score > 0) ? Search.MATE - score : -(Search.MATE + score);
+    }
+}
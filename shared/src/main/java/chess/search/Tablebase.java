@@ -0,0 +1,297 @@
+package chess.search;
+
+import chess.*;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Win/draw tablebases for king and one piece against a lone king (KQK, KRK, KPK), built by retrograde analysis
+ * <p>
+ * Each table covers every placement of the strong king, weak king and piece with either side to move, with the strong
+ * side normalized to white; black-strong positions are probed through the vertical mirror. A position's result takes
+ * two bits (illegal, draw or win for the strong side), so a table is 128 KB on disk and in memory. Positions with only
+ * the kings, or a lone bishop or knight, are draws without a table. Positions with castling rights are not covered.
+ * <p>
+ * Files whose name ends in {@code .gz} are gzipped, which shrinks the tables to about 60 KB; the server bundles one.
+ * <p>
+ * Usage: {@code java -cp shared.jar chess.search.Tablebase tablebase.bin.gz}
+ */
+public final class Tablebase {
+    // result for the side to move
+    public enum Wdl { WIN, DRAW, LOSS }
+
+    // generation order: pawn tables resolve promotions through the queen and rook tables
+    public static final List<ChessPiece.PieceType> PIECES =
+            List.of(ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.PAWN);
+
+    private static final int MAGIC = 0x43485442; // "CHTB"
+    private static final int VERSION = 1;
+
+    // index = weak side to move << 18 | strong king << 12 | weak king << 6 | piece
+    static final int POSITIONS = 2 * 64 * 64 * 64;
+    private static final int ILLEGAL = 0;
+    private static final int DRAW = 1;
+    private static final int WIN = 2;
+    private static final int UNKNOWN = 3;
+
+    private final Map<ChessPiece.PieceType, long[]> tables;
+
+    private Tablebase(Map<ChessPiece.PieceType, long[]> tables) { this.tables = tables; }
+
+    public static Tablebase generate() {
+        Map<ChessPiece.PieceType, long[]> tables = new EnumMap<>(ChessPiece.PieceType.class);
+        for (ChessPiece.PieceType type : PIECES) { tables.put(type, new Generator(type, tables).run()); }
+        return new Tablebase(tables);
+    }
+
+    /**
+     * Result of the position for the side to move, assuming perfect play from both sides
+     *
+     * @return null if the position is not covered by the tables
+     */
+    public Wdl probe(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        if (board.getCastlingRights() != 0) { return null; }
+        int count = Long.bitCount(board.getOccupancy());
+        if (count == 2) { return Wdl.DRAW; }
+        if (count != 3) { return null; }
+
+        for (ChessGame.TeamColor strong : ChessGame.TeamColor.values()) {
+            long pieces = board.getOccupancy(strong) & ~board.getBitboard(strong, ChessPiece.PieceType.KING);
+            if (pieces == 0) { continue; }
+            int sq = Long.numberOfTrailingZeros(pieces);
+            ChessPiece.PieceType type = board.pieceAt(sq).getPieceType();
+            if (type == ChessPiece.PieceType.BISHOP || type == ChessPiece.PieceType.KNIGHT) { return Wdl.DRAW; }
+            long[] table = tables.get(type);
+            if (table == null) { return null; }
+
+            int flip = (strong == ChessGame.TeamColor.WHITE) ? 0 : 56;
+            boolean strongToMove = game.getTeamTurn() == strong;
+            int value = get(table, index(strongToMove ? 0 : 1, board.kingSquare(strong) ^ flip,
+                    board.kingSquare(strong.opponent()) ^ flip, sq ^ flip));
+            if (value == ILLEGAL) { return null; }
+            if (value == DRAW) { return Wdl.DRAW; }
+            return strongToMove ? Wdl.WIN : Wdl.LOSS;
+        }
+        return null;
+    }
+
+    public void write(Path file) throws IOException {
+        OutputStream stream = Files.newOutputStream(file);
+        if (isGzipped(file)) { stream = new GZIPOutputStream(stream); }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(tables.size());
+            for (Map.Entry<ChessPiece.PieceType, long[]> table : tables.entrySet()) {
+                out.writeByte(table.getKey().ordinal());
+                for (long word : table.getValue()) { out.writeLong(word); }
+            }
+        }
+    }
+
+    public static Tablebase load(Path file) throws IOException {
+        try (InputStream stream = Files.newInputStream(file);
+             InputStream in = isGzipped(file) ? new GZIPInputStream(stream) : stream) {
+            return read(in, file.toString());
+        } catch (ZipException e) {
+            throw new IOException("Not a tablebase: " + file, e);
+        }
+    }
+
+    /**
+     * Reads tables in the format {@link #write} produces, e.g. from a bundled resource; gzipped input must be
+     * unwrapped by the caller
+     *
+     * @param source names the input in error messages
+     */
+    public static Tablebase read(InputStream input, String source) throws IOException {
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) { throw new IOException("Not a tablebase: " + source); }
+            int count = in.readInt();
+            Map<ChessPiece.PieceType, long[]> tables = new EnumMap<>(ChessPiece.PieceType.class);
+            for (int i = 0; i < count; i++) {
+                int type = in.readByte();
+                if (type < 0 || type >= ChessPiece.PieceType.values().length) { throw new IOException("Bad table in " + source); }
+                long[] table = new long[POSITIONS / 32];
+                for (int j = 0; j < table.length; j++) { table[j] = in.readLong(); }
+                tables.put(ChessPiece.PieceType.values()[type], table);
+            }
+            return new Tablebase(tables);
+        } catch (EOFException e) {
+            throw new IOException("Tablebase is truncated: " + source, e);
+        }
+    }
+
+    private static boolean isGzipped(Path file) { return file.getFileName().toString().endsWith(".gz"); }
+
+    static int index(int weakToMove, int strongKing, int weakKing, int piece) {
+        return weakToMove << 18 | strongKing << 12 | weakKing << 6 | piece;
+    }
+
+    private static int get(long[] table, int index) { return (int) (table[index >>> 5] >>> ((index & 31) << 1)) & 3; }
+
+    /**
+     * Builds one table: every legal position is expanded once with the move generator, mates are seeded, and wins
+     * are propagated backwards along the reversed move graph. A strong-to-move position wins once any successor wins;
+     * a weak-to-move position loses once all of its successors are wins. Whatever is left unresolved is a draw.
+     */
+    private static final class Generator {
+        private static final int SUCCESSOR_WIN = -1;
+        private static final int SUCCESSOR_DRAW = -2;
+
+        private final ChessPiece.PieceType type;
+        private final Map<ChessPiece.PieceType, long[]> finished;
+        private final ChessGame game = new ChessGame();
+        private final ChessBoard board = new ChessBoard();
+        private final int[] moves = new int[Move.MAX_MOVES];
+        private final int strongSlot;
+
+        private final byte[] values = new byte[POSITIONS];
+        // for weak-to-move positions, moves not yet known to lose
+        private final int[] remaining = new int[POSITIONS];
+        private final int[] edgeStart = new int[POSITIONS + 1];
+        private int[] edges = new int[1 << 20];
+        private int edgeCount;
+
+        private Generator(ChessPiece.PieceType type, Map<ChessPiece.PieceType, long[]> finished) {
+            this.type = type;
+            this.finished = finished;
+            this.strongSlot = ChessBoard.index(ChessGame.TeamColor.WHITE, type);
+            game.setBoard(board);
+        }
+
+        private long[] run() {
+            int[] queue = new int[POSITIONS];
+            int queued = 0;
+            for (int index = 0; index < POSITIONS; index++) {
+                edgeStart[index] = edgeCount;
+                if (expand(index)) { queue[queued++] = index; }
+            }
+            edgeStart[POSITIONS] = edgeCount;
+
+            // predecessors, as the reverse of the edges just collected
+            int[] predecessorStart = new int[POSITIONS + 1];
+            for (int i = 0; i < edgeCount; i++) { predecessorStart[edges[i] + 1]++; }
+            for (int i = 0; i < POSITIONS; i++) { predecessorStart[i + 1] += predecessorStart[i]; }
+            int[] predecessors = new int[edgeCount];
+            int[] fill = predecessorStart.clone();
+            for (int from = 0; from < POSITIONS; from++) {
+                for (int i = edgeStart[from]; i < edgeStart[from + 1]; i++) { predecessors[fill[edges[i]]++] = from; }
+            }
+            edges = null;
+
+            for (int head = 0; head < queued; head++) {
+                int won = queue[head];
+                for (int i = predecessorStart[won]; i < predecessorStart[won + 1]; i++) {
+                    int previous = predecessors[i];
+                    if (values[previous] != UNKNOWN) { continue; }
+                    if ((previous >>> 18) == 0 || --remaining[previous] == 0) {
+                        values[previous] = WIN;
+                        queue[queued++] = previous;
+                    }
+                }
+            }
+
+            long[] table = new long[POSITIONS / 32];
+            for (int index = 0; index < POSITIONS; index++) {
+                long value = (values[index] == UNKNOWN) ? DRAW : values[index];
+                table[index >>> 5] |= value << ((index & 31) << 1);
+            }
+            return table;
+        }
+
+        // classifies one position and records its moves; returns true if it is already known to be won
+        private boolean expand(int index) {
+            int weakToMove = index >>> 18;
+            int strongKing = (index >>> 12) & 63;
+            int weakKing = (index >>> 6) & 63;
+            int piece = index & 63;
+            if (strongKing == weakKing || piece == strongKing || piece == weakKing
+                    || adjacent(strongKing, weakKing)
+                    || (type == ChessPiece.PieceType.PAWN && (piece < 8 || piece >= 56))) {
+                return false;
+            }
+
+            board.putPiece(strongKing, ChessBoard.index(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+            board.putPiece(weakKing, ChessBoard.index(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+            board.putPiece(piece, strongSlot);
+            try {
+                // the side that just moved cannot be left in check
+                if (weakToMove == 0 && board.isSquareAttacked(weakKing, ChessGame.TeamColor.WHITE)) { return false; }
+                game.setTeamTurn((weakToMove == 0) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK);
+                int count = game.generateLegalMoves(moves);
+                values[index] = UNKNOWN;
+
+                if (weakToMove == 1 && count == 0) {
+                    boolean mated = game.isInCheck(ChessGame.TeamColor.BLACK);
+                    values[index] = (byte) (mated ? WIN : DRAW);
+                    return mated;
+                }
+                int open = 0;
+                for (int i = 0; i < count; i++) {
+                    int successor = successor(moves[i], weakToMove, strongKing, weakKing, piece);
+                    if (successor == SUCCESSOR_WIN) {
+                        if (weakToMove == 0) {
+                            values[index] = WIN;
+                            return true;
+                        }
+                    } else {
+                        open++;
+                        if (successor >= 0) { addEdge(successor); }
+                    }
+                }
+                if (weakToMove == 1) { remaining[index] = open; }
+                return false;
+            } finally {
+                board.removePiece(strongKing, ChessBoard.index(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+                board.removePiece(weakKing, ChessBoard.index(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+                board.removePiece(piece, strongSlot);
+            }
+        }
+
+        // index of the position a move leads to within this table, or the settled result if it leaves the table
+        private int successor(int move, int weakToMove, int strongKing, int weakKing, int piece) {
+            int from = Move.from(move);
+            int to = Move.to(move);
+            if (weakToMove == 1) { return (to == piece) ? SUCCESSOR_DRAW : index(0, strongKing, to, piece); }
+            if (from == strongKing) { return index(1, to, weakKing, piece); }
+
+            ChessPiece.PieceType promotion = Move.promotion(move);
+            if (promotion == null) { return index(1, strongKing, weakKing, to); }
+            long[] promoted = finished.get(promotion);
+            if (promoted == null) { return SUCCESSOR_DRAW; }
+            return (get(promoted, index(1, strongKing, weakKing, to)) == WIN) ? SUCCESSOR_WIN : SUCCESSOR_DRAW;
+        }
+
+        private static boolean adjacent(int a, int b) {
+            return Math.abs((a >>> 3) - (b >>> 3)) <= 1 && Math.abs((a & 7) - (b & 7)) <= 1;
+        }
+
+        private void addEdge(int successor) {
+            if (edgeCount == edges.length) { edges = Arrays.copyOf(edges, edges.length * 2); }
+            edges[edgeCount++] = successor;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: Tablebase <tablebase.bin | tablebase.bin.gz>");
+            return;
+        }
+        long start = System.nanoTime();
+        Tablebase tablebase = generate();
+        tablebase.write(Path.of(args[0]));
+        System.out.printf("Wrote %s to %s in %.1f s%n", PIECES, args[0], (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,71 @@
+package chess.search;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size, lock-free transposition table held in one flat {@code long[]}
+ * <p>
+ * Each entry is two longs: the position key XORed with the data, then the data itself. Threads read and write
+ * without locks; a reader recomputes the key from the pair, so an entry torn by a concurrent write simply fails to
+ * match and counts as a miss. A slot is only overwritten by a search of at least the same depth, or by a newer
+ * result for the same position, so the deepest (most expensive) results stay in the table.
+ * <p>
+ * Data layout: bits 0-14 move (as in {@link chess.Move}, without flags), bits 15-22 depth, bits 23-24 bound,
+ * bits 32-63 score.
+ */
+public final class TranspositionTable {
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    private static final int ENTRY_LONGS = 2;
+
+    private final long[] table;
+    private final int mask;
+
+    // a table using at most the given number of megabytes, rounded down to a power-of-two entry count
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) { throw new IllegalArgumentException("Transposition table needs at least 1 MB"); }
+        long entries = Long.highestOneBit(megabytes * 1024L * 1024L / (ENTRY_LONGS * Long.BYTES));
+        entries = Math.min(entries, 1L << 29);
+        this.table = new long[(int) entries * ENTRY_LONGS];
+        this.mask = (int) entries - 1;
+    }
+
+    // returns the stored data for the key, or 0 if there is none
+    public long probe(long key) {
+        int slot = index(key);
+        long data = table[slot + 1];
+        return ((table[slot] ^ data) == key) ? data : 0L;
+    }
+
+    public void store(long key, int depth, int bound, int score, int move) {
+        int slot = index(key);
+        long oldData = table[slot + 1];
+        boolean sameKey = (table[slot] ^ oldData) == key;
+        if (oldData != 0 && !sameKey && depth(oldData) > depth) { return; }
+        long data = (move & 0x7FFFL)
+                | (long) Math.min(depth, 0xFF) << 15
+                | (long) bound << 23
+                | (long) score << 32;
+        table[slot] = key ^ data;
+        table[slot + 1] = data;
+    }
+
+    public void clear() { Arrays.fill(table, 0L); }
+
+    public int capacity() { return mask + 1; }
+
+    public static int move(long data) { return (int) (data & 0x7FFF); }
+
+    public static int depth(long data) { return (int) (data >>> 15 & 0xFF); }
+
+    public static int bound(long data) { return (int) (data >>> 23 & 0x3); }
+
+    public static int score(long data) { return (int) (data >> 32); }
+
+    private int index(long key) {
+        long mixed = key ^ (key >>> 29);
+        return ((int) mixed & mask) * ENTRY_LONGS;
+    }
+}
@@ -0,0 +1,27 @@
+package model;
+
+/**
+ * One page of GET /game: games with ids above {@code after}, at most {@code limit} of them, narrowed by the filters
+ * that are set. Null fields do not restrict the listing.
+ *
+ * @param after    id of the last game on the previous page; the response's {@code next} value
+ * @param open     games that can still be joined (not finished and missing a player), or, if false, those that cannot
+ * @param finished finished games, or, if false, games still in progress
+ * @param player   games where this user holds either seat, ignoring case
+ */
+public record GameQuery(Integer after, Integer limit, Boolean open, Boolean finished, String player) {
+    public static GameQuery all() { return new GameQuery(null, null, null, null, null); }
+
+    public GameQuery after(Integer gameID) { return new GameQuery(gameID, limit, open, finished, player); }
+
+    public boolean matches(GameSummary game) {
+        if (after != null && game.gameID() <= after) { return false; }
+        if (finished != null && game.finished() != finished) { return false; }
+        if (open != null && isOpen(game) != open) { return false; }
+        return player == null || player.equalsIgnoreCase(game.whiteUsername()) || player.equalsIgnoreCase(game.blackUsername());
+    }
+
+    public static boolean isOpen(GameSummary game) {
+        return !game.finished() && (game.whiteUsername() == null || game.blackUsername() == null);
+    }
+}
@@ -0,0 +1,8 @@
+package model;
+
+// what a game listing shows about a game: everything in GameData except the board
+public record GameSummary(int gameID, String whiteUsername, String blackUsername, String gameName, boolean finished) {
+    public static GameSummary of(GameData game) {
+        return new GameSummary(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(), game.finished());
+    }
+}
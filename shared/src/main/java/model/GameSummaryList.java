@@ -0,0 +1,8 @@
+package model;
+
+import java.util.List;
+
+// next is the cursor for the following page, or null on the last one
+public record GameSummaryList(List<GameSummary> games, Integer next){
+    public GameSummaryList(List<GameSummary> games) { this(games, null); }
+}
@@ -1,3 +1,6 @@
 package model;
 
-public record JoinGameReqeust(String authToken, String playerColor, Integer gameID){}
+// opponent, when given, names a bot to seat in the other color along with the player
+public record JoinGameReqeust(String authToken, String playerColor, Integer gameID, String opponent){
+    public JoinGameReqeust(String authToken, String playerColor, Integer gameID) { this(authToken, playerColor, gameID, null); }
+}
@@ -0,0 +1,300 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ChessGameTests {
+
+    @Test
+    @DisplayName("Undo Restores Position")
+    public void undoRestoresPosition() {
+        ChessGame game = Fen.parse(Perft.POSITION_6);
+        String before = Fen.toFen(game);
+        Perft.perft(game, 3);
+        Assertions.assertEquals(before, Fen.toFen(game), "perft left the game changed");
+
+        long first = game.doMove(new ChessMove(new ChessPosition(3, 3), new ChessPosition(5, 4), null));
+        long second = game.doMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(4, 5), null));
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        game.undoMove(second);
+        game.undoMove(first);
+        Assertions.assertEquals(before, Fen.toFen(game));
+    }
+
+    @Test
+    @DisplayName("Undo Promotion Capture")
+    public void undoPromotionCapture() {
+        ChessGame game = Fen.parse("1n2k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+        String before = Fen.toFen(game);
+        long undo = game.doMove(new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 2), ChessPiece.PieceType.QUEEN));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN),
+                game.getBoard().getPiece(new ChessPosition(8, 2)));
+        game.undoMove(undo);
+        Assertions.assertEquals(before, Fen.toFen(game));
+    }
+
+    @Test
+    @DisplayName("Do Move From Empty Square")
+    public void doMoveFromEmptySquare() {
+        ChessGame game = new ChessGame();
+        long key = game.getZobristKey();
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> game.doMove(new ChessMove(new ChessPosition(4, 4), new ChessPosition(5, 4), null)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> game.doMove(Move.encode(Fen.parseSquare("e4"), Fen.parseSquare("e5"), null)));
+        Assertions.assertEquals(key, game.getZobristKey(), "a rejected move must leave the game untouched");
+        Assertions.assertEquals(Fen.STARTING_POSITION, Fen.toFen(game));
+    }
+
+    @Test
+    @DisplayName("Do Move Two-File King Move That Is Not Castling")
+    public void doMoveBadCastle() {
+        // no rook on h1
+        ChessGame noRook = Fen.parse("4k3/8/8/8/8/8/8/R3K3 w Q - 0 1");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> noRook.doMove(Move.encode(Fen.parseSquare("e1"), Fen.parseSquare("g1"), null)));
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/R3K3 w Q - 0 1", Fen.toFen(noRook), "a rejected move must leave the game untouched");
+        // the king is off its home square
+        ChessGame centralKing = Fen.parse("4k3/8/8/8/3K4/8/8/8 w - - 0 1");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> centralKing.doMove(Move.encode(Fen.parseSquare("d4"), Fen.parseSquare("f4"), null)));
+        Assertions.assertEquals("4k3/8/8/8/3K4/8/8/8 w - - 0 1", Fen.toFen(centralKing));
+
+        // a real castle still moves the rook, and undoes cleanly
+        long undo = noRook.doMove(Move.encode(Fen.parseSquare("e1"), Fen.parseSquare("c1"), null));
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/2KR4 b - - 1 1", Fen.toFen(noRook));
+        noRook.undoMove(undo);
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/R3K3 w Q - 0 1", Fen.toFen(noRook));
+    }
+
+    @Test
+    @DisplayName("Fen Rejects Bad Squares")
+    public void fenRejectsBadSquares() {
+        for (String name : new String[]{"", "e", "e44", "i4", "e9"}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parseSquare(name), name);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/4K3 w - e 0 1"));
+    }
+
+    @Test
+    @DisplayName("Zobrist Key Follows Moves")
+    public void zobristKeyFollowsMoves() throws InvalidMoveException {
+        ChessGame viaKnights = new ChessGame();
+        viaKnights.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        viaKnights.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        viaKnights.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+
+        ChessGame transposed = new ChessGame();
+        transposed.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+        transposed.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        transposed.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+
+        Assertions.assertEquals(viaKnights.getZobristKey(), transposed.getZobristKey());
+        Assertions.assertEquals(Fen.parse(Fen.toFen(viaKnights)).getZobristKey(), viaKnights.getZobristKey());
+        Assertions.assertNotEquals(new ChessGame().getZobristKey(), viaKnights.getZobristKey());
+
+        // a FEN en passant square no pawn can use is dropped, as doMove never records one
+        ChessGame kingsPawn = new ChessGame();
+        kingsPawn.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        ChessGame fromFen = Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        Assertions.assertEquals(-1, fromFen.getEnPassantSquare());
+        Assertions.assertEquals(kingsPawn.getZobristKey(), fromFen.getZobristKey());
+        Assertions.assertEquals(Fen.parseSquare("d6"),
+                Fen.parse("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3").getEnPassantSquare());
+
+        long undo = viaKnights.doMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        long before = transposed.getZobristKey();
+        viaKnights.undoMove(undo);
+        Assertions.assertEquals(before, viaKnights.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Json Rebuilds Derived Board State")
+    public void jsonRebuildsDerivedState() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null));
+
+        String json = new Gson().toJson(game);
+        Assertions.assertFalse(json.contains("pieceKey") || json.contains("pieceSquareScore"), json);
+        ChessGame loaded = new Gson().fromJson(json, ChessGame.class);
+        Assertions.assertEquals(game.getZobristKey(), loaded.getZobristKey());
+        Assertions.assertEquals(game.getEvaluation(), loaded.getEvaluation());
+
+        // a stored key is never trusted, whatever it says
+        String tampered = json.replace("\"castlingRights\"", "\"pieceKey\":12345,\"pieceSquareScore\":-999,\"castlingRights\"");
+        ChessGame fromTampered = new Gson().fromJson(tampered, ChessGame.class);
+        Assertions.assertEquals(game.getZobristKey(), fromTampered.getZobristKey());
+        Assertions.assertEquals(game.getEvaluation(), fromTampered.getEvaluation());
+    }
+
+    // the JSON Gson wrote for a game before the board moved to bitboards
+    private static String legacyJson(ChessGame game) {
+        StringBuilder json = new StringBuilder("{\"board\":{\"squares\":[");
+        for (int row = 1; row <= 8; row++) {
+            json.append((row > 1) ? ",[" : "[");
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = game.getBoard().getPiece(new ChessPosition(row, col));
+                json.append((col > 1) ? "," : "").append((piece == null) ? "null"
+                        : "{\"type\":\"" + piece.getPieceType() + "\",\"color\":\"" + piece.getTeamColor() + "\"}");
+            }
+            json.append("]");
+        }
+        return json.append("]},\"currentTurn\":\"").append(game.getTeamTurn()).append("\"}").toString();
+    }
+
+    @Test
+    @DisplayName("Reads Games Stored Before Bitboards")
+    public void readsLegacyJson() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+
+        ChessGame loaded = new Gson().fromJson(legacyJson(game), ChessGame.class);
+        Assertions.assertEquals(game, loaded);
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, loaded.getTeamTurn());
+        Assertions.assertEquals(ChessBoard.ALL_CASTLING, loaded.getCastlingRights());
+        Assertions.assertEquals(game.getZobristKey(), loaded.getZobristKey());
+        Assertions.assertEquals(game.getEvaluation(), loaded.getEvaluation());
+
+        Assertions.assertThrows(com.google.gson.JsonParseException.class,
+                () -> new Gson().fromJson("{\"board\":{\"squares\":[[null]]},\"currentTurn\":\"WHITE\"}", ChessGame.class));
+    }
+
+    @Test
+    @DisplayName("Legal Move Cache Hits Repeated Positions")
+    public void legalMoveCacheHits() {
+        LegalMoveCache cache = new LegalMoveCache(8);
+        Assertions.assertNull(cache.get(42L, 7L));
+        cache.put(42L, 7L, new int[]{1, 2});
+        Assertions.assertArrayEquals(new int[]{1, 2}, cache.get(42L, 7L));
+        Assertions.assertNull(cache.get(42L, 8L), "entries must match the check value too");
+        Assertions.assertEquals(1, cache.hits());
+        Assertions.assertEquals(2, cache.misses());
+        for (long key = 0; key < 64; key++) { cache.put(key, 0L, new int[0]); }
+        Assertions.assertEquals(8, cache.capacity());
+
+        ChessGame game = new ChessGame();
+        long hitsBefore = LegalMoveCache.shared().hits();
+        Assertions.assertEquals(2, game.validMoves(new ChessPosition(2, 5)).size());
+        Assertions.assertEquals(2, game.validMoves(new ChessPosition(1, 7)).size());
+        Assertions.assertTrue(LegalMoveCache.shared().hits() > hitsBefore);
+    }
+
+    @Test
+    @DisplayName("Game Status In One Call")
+    public void gameStatus() {
+        Assertions.assertEquals(ChessGame.GameStatus.NORMAL, new ChessGame().getGameStatus(ChessGame.TeamColor.WHITE));
+        ChessGame foolsMate = Fen.parse("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        Assertions.assertEquals(ChessGame.GameStatus.CHECKMATE, foolsMate.getGameStatus(ChessGame.TeamColor.WHITE));
+        ChessGame check = Fen.parse("rnb1kbnr/pppp1ppp/8/4p3/7q/5P2/PPPPP1PP/RNBQKBNR w KQkq - 1 3");
+        Assertions.assertEquals(ChessGame.GameStatus.CHECK, check.getGameStatus(ChessGame.TeamColor.WHITE));
+        ChessGame stalemate = Fen.parse("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+        Assertions.assertEquals(ChessGame.GameStatus.STALEMATE, stalemate.getGameStatus(ChessGame.TeamColor.BLACK));
+        Assertions.assertTrue(stalemate.isInStalemate(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Incremental Evaluation Matches Rescan")
+    public void incrementalEvaluation() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(0, game.getEvaluation(), "the starting position is symmetric");
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertTrue(game.getEvaluation() > 0, "a central pawn push should favour white");
+        Assertions.assertEquals(-game.getEvaluation(), game.getEvaluation(ChessGame.TeamColor.BLACK));
+
+        ChessGame kiwipete = Fen.parse(Perft.KIWIPETE);
+        int[] moves = new int[Move.MAX_MOVES];
+        int[] replies = new int[Move.MAX_MOVES];
+        int count = kiwipete.generateLegalMoves(moves);
+        for (int i = 0; i < count; i++) {
+            long undo = kiwipete.doMove(moves[i]);
+            int replyCount = kiwipete.generateLegalMoves(replies);
+            for (int j = 0; j < replyCount; j++) {
+                long replyUndo = kiwipete.doMove(replies[j]);
+                Assertions.assertEquals(Evaluation.evaluateByRescan(kiwipete.getBoard()), kiwipete.getEvaluation());
+                kiwipete.undoMove(replyUndo);
+            }
+            kiwipete.undoMove(undo);
+        }
+        Assertions.assertEquals(Evaluation.evaluateByRescan(kiwipete.getBoard()), kiwipete.getEvaluation());
+    }
+
+    @Test
+    @DisplayName("Threefold Repetition")
+    public void threefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessMove[] shuffle = {
+                new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+                new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null),
+                new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null),
+                new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null)
+        };
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < shuffle.length; i++) {
+                Assertions.assertFalse(game.isThreefoldRepetition(), "repeated too early in round " + round + " move " + i);
+                game.makeMove(shuffle[i]);
+            }
+        }
+        Assertions.assertTrue(game.isThreefoldRepetition());
+        Assertions.assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, game.getGameStatus(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(8, game.getHalfmoveClock());
+
+        // a pawn move is irreversible and starts the count again
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        Assertions.assertFalse(game.isThreefoldRepetition());
+    }
+
+    @Test
+    @DisplayName("Repetition History Survives Json")
+    public void repetitionHistorySurvivesJson() throws InvalidMoveException {
+        String fresh = new Gson().toJson(new ChessGame());
+        Assertions.assertFalse(fresh.contains("positionHistory"), fresh);
+        Assertions.assertTrue(fresh.contains("\"history\":[]"), fresh);
+
+        ChessGame game = new ChessGame();
+        ChessMove[] shuffle = {
+                new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+                new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null),
+                new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null),
+                new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null)
+        };
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        for (int i = 0; i < 7; i++) { game.makeMove(shuffle[i % 4]); }
+
+        String json = new Gson().toJson(game);
+        JsonObject tree = JsonParser.parseString(json).getAsJsonObject();
+        // the pawn moves cannot repeat, so only the seven knight moves are kept
+        Assertions.assertEquals(7, tree.getAsJsonArray("history").size());
+        ChessGame loaded = new Gson().fromJson(json, ChessGame.class);
+        loaded.makeMove(shuffle[3]);
+        Assertions.assertTrue(loaded.isThreefoldRepetition());
+    }
+
+    @Test
+    @DisplayName("Fifty Move Rule")
+    public void fiftyMoveRule() throws InvalidMoveException {
+        ChessGame game = Fen.parse("4k3/8/4K3/8/8/8/8/R7 w - - 99 80");
+        Assertions.assertFalse(game.isFiftyMoveRule());
+        long undo = game.doMove(new ChessMove(new ChessPosition(1, 1), new ChessPosition(2, 1), null));
+        Assertions.assertTrue(game.isFiftyMoveRule());
+        Assertions.assertEquals(ChessGame.GameStatus.FIFTY_MOVE_RULE, game.getGameStatus(ChessGame.TeamColor.BLACK));
+        game.undoMove(undo);
+        Assertions.assertEquals(99, game.getHalfmoveClock());
+        Assertions.assertEquals("4k3/8/4K3/8/8/8/8/R7 w - - 99 1", Fen.toFen(game));
+
+        // a clock past one byte, as a FEN may give, comes back whole
+        ChessGame longGame = Fen.parse("4k3/8/4K3/8/8/8/8/R7 w - - 300 200");
+        undo = longGame.doMove(new ChessMove(new ChessPosition(1, 1), new ChessPosition(2, 1), null));
+        longGame.undoMove(undo);
+        Assertions.assertEquals(300, longGame.getHalfmoveClock());
+
+        game.makeMove(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null));
+        Assertions.assertEquals(ChessGame.GameStatus.CHECKMATE, game.getGameStatus(ChessGame.TeamColor.BLACK),
+                "mate on the hundredth half-move still wins");
+    }
+}
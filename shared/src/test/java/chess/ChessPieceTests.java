@@ -0,0 +1,32 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ChessPieceTests {
+
+    @Test
+    @DisplayName("Board Returns Shared Pieces")
+    public void boardReturnsSharedPieces() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessPiece whitePawn = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+        Assertions.assertSame(whitePawn, board.getPiece(new ChessPosition(2, 1)));
+        Assertions.assertSame(whitePawn, board.getPiece(new ChessPosition(2, 8)));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN), whitePawn);
+    }
+
+    @Test
+    @DisplayName("Adapter Reads Shared Pieces")
+    public void adapterReadsSharedPieces() {
+        Gson gson = new GsonBuilder().registerTypeAdapter(ChessPiece.class, new ChessPieceAdapter()).create();
+        ChessPiece queen = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
+        String json = gson.toJson(queen);
+        Assertions.assertEquals(new Gson().toJson(queen), json, "adapter should write the reflective format");
+        Assertions.assertSame(ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN), gson.fromJson(json, ChessPiece.class));
+        Assertions.assertNull(gson.fromJson("null", ChessPiece.class));
+    }
+}
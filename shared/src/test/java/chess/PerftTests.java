@@ -0,0 +1,90 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PerftTests {
+
+    @Test
+    @DisplayName("Starting Position")
+    public void startingPosition() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(20, Perft.perft(game, 1));
+        Assertions.assertEquals(400, Perft.perft(game, 2));
+        Assertions.assertEquals(8902, Perft.perft(game, 3));
+        Assertions.assertEquals(197281, Perft.perft(game, 4));
+    }
+
+    @Test
+    @DisplayName("Rook Endgame (Position 3)")
+    public void position3() {
+        ChessGame game = Fen.parse(Perft.POSITION_3);
+        Assertions.assertEquals(14, Perft.perft(game, 1));
+        Assertions.assertEquals(191, Perft.perft(game, 2));
+        Assertions.assertEquals(2812, Perft.perft(game, 3));
+        Assertions.assertEquals(43238, Perft.perft(game, 4));
+    }
+
+    @Test
+    @DisplayName("Kiwipete")
+    public void kiwipete() {
+        ChessGame game = Fen.parse(Perft.KIWIPETE);
+        Assertions.assertEquals(48, Perft.perft(game, 1));
+        Assertions.assertEquals(2039, Perft.perft(game, 2));
+        Assertions.assertEquals(97862, Perft.perft(game, 3));
+    }
+
+    @Test
+    @DisplayName("Promotions and Castling (Position 4)")
+    public void position4() {
+        ChessGame game = Fen.parse(Perft.POSITION_4);
+        Assertions.assertEquals(6, Perft.perft(game, 1));
+        Assertions.assertEquals(264, Perft.perft(game, 2));
+        Assertions.assertEquals(9467, Perft.perft(game, 3));
+    }
+
+    @Test
+    @DisplayName("Position 5")
+    public void position5() {
+        ChessGame game = Fen.parse(Perft.POSITION_5);
+        Assertions.assertEquals(44, Perft.perft(game, 1));
+        Assertions.assertEquals(1486, Perft.perft(game, 2));
+        Assertions.assertEquals(62379, Perft.perft(game, 3));
+    }
+
+    @Test
+    @DisplayName("Middlegame (Position 6)")
+    public void position6() {
+        ChessGame game = Fen.parse(Perft.POSITION_6);
+        Assertions.assertEquals(46, Perft.perft(game, 1));
+        Assertions.assertEquals(2079, Perft.perft(game, 2));
+        Assertions.assertEquals(89890, Perft.perft(game, 3));
+    }
+
+    @Test
+    @DisplayName("Encoded Generator Matches")
+    public void encodedGeneratorMatches() {
+        Assertions.assertEquals(197281, Perft.perftEncoded(new ChessGame(), 4));
+        Assertions.assertEquals(89890, Perft.perftEncoded(Fen.parse(Perft.POSITION_6), 3));
+        Assertions.assertEquals(97862, Perft.perftEncoded(Fen.parse(Perft.KIWIPETE), 3));
+    }
+
+    @Test
+    @DisplayName("Divide Sums To Perft")
+    public void divideMatchesPerft() {
+        ChessGame game = new ChessGame();
+        var divide = Perft.divide(game, 3);
+        Assertions.assertEquals(20, divide.size());
+        Assertions.assertEquals(8902, divide.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertEquals(600, divide.get("e2e4"));
+    }
+
+    @Test
+    @DisplayName("FEN Round Trip")
+    public void fenRoundTrip() {
+        Assertions.assertEquals(Fen.STARTING_POSITION, Fen.toFen(new ChessGame()));
+        Assertions.assertEquals(Perft.KIWIPETE, Fen.toFen(Fen.parse(Perft.KIWIPETE)));
+        Assertions.assertEquals(new ChessGame(), Fen.parse(Fen.STARTING_POSITION));
+    }
+}
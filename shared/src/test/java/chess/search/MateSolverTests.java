@@ -0,0 +1,58 @@
+package chess.search;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MateSolverTests {
+    private static final String ROOK_LADDER = "7k/8/8/8/8/8/R7/1R5K w - - 0 1";
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void findsMateInOne() {
+        var result = new MateSolver(1).solve(Fen.parse("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1"), 3);
+        Assertions.assertEquals(MateSolver.Outcome.MATE, result.outcome());
+        Assertions.assertEquals(1, result.mateInMoves());
+        Assertions.assertEquals("a1a8", Fen.moveName(result.firstMove()));
+    }
+
+    @Test
+    @DisplayName("Finds Shortest Mate")
+    public void findsShortestMate() {
+        MateSolver solver = new MateSolver(1);
+        Assertions.assertEquals(MateSolver.Outcome.NO_MATE, solver.solve(Fen.parse(ROOK_LADDER), 1).outcome());
+        var result = solver.solve(Fen.parse(ROOK_LADDER), 3);
+        Assertions.assertEquals(MateSolver.Outcome.MATE, result.outcome());
+        Assertions.assertEquals(2, result.mateInMoves());
+    }
+
+    @Test
+    @DisplayName("Refutes Mate")
+    public void refutesMate() {
+        var result = new MateSolver(1).solve(new ChessGame(), 2);
+        Assertions.assertEquals(MateSolver.Outcome.NO_MATE, result.outcome());
+        Assertions.assertNull(result.firstMove());
+    }
+
+    @Test
+    @DisplayName("Node Budget Gives Unknown")
+    public void nodeBudgetGivesUnknown() {
+        var result = new MateSolver(1).solve(Fen.parse(Perft.KIWIPETE), 3, 100);
+        Assertions.assertEquals(MateSolver.Outcome.UNKNOWN, result.outcome());
+    }
+
+    @Test
+    @DisplayName("Table Keeps Deeper Entries")
+    public void tableKeepsDeeperEntries() {
+        TranspositionTable table = new TranspositionTable(1);
+        Assertions.assertEquals(0, table.probe(42L));
+        table.store(42L, 5, TranspositionTable.EXACT, -300, 77);
+        table.store(42L + table.capacity(), 2, TranspositionTable.EXACT, 10, 1);
+        long entry = table.probe(42L);
+        Assertions.assertEquals(5, TranspositionTable.depth(entry));
+        Assertions.assertEquals(-300, TranspositionTable.score(entry));
+        Assertions.assertEquals(77, TranspositionTable.move(entry));
+        Assertions.assertEquals(0, table.probe(42L + table.capacity()));
+    }
+}
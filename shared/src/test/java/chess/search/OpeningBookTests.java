@@ -0,0 +1,95 @@
+package chess.search;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+public class OpeningBookTests {
+    private static final String LINES = """
+            # three games, two of them king's pawn
+            e2e4 e7e5 g1f3 b8c6
+            e2e4 c7c5 g1f3
+            d2d4 d7d5
+            """;
+
+    @TempDir
+    Path dir;
+
+    private OpeningBook build() throws IOException {
+        Path file = dir.resolve("book.bin");
+        new OpeningBook.Builder().addLines(new StringReader(LINES), 16).write(file);
+        return OpeningBook.open(file);
+    }
+
+    @Test
+    @DisplayName("Finds Weighted Moves")
+    public void findsWeightedMoves() throws IOException {
+        OpeningBook book = build();
+        Assertions.assertEquals(8, book.size());
+
+        List<OpeningBook.BookMove> moves = book.lookup(new ChessGame());
+        Assertions.assertEquals(2, moves.size());
+        Assertions.assertEquals("e2e4", Fen.moveName(moves.get(0).move()));
+        Assertions.assertEquals(2, moves.get(0).weight());
+        Assertions.assertEquals("d2d4", Fen.moveName(moves.get(1).move()));
+        Assertions.assertEquals(1, moves.get(1).weight());
+        Assertions.assertEquals("e2e4", Fen.moveName(book.bestMove(new ChessGame())));
+    }
+
+    @Test
+    @DisplayName("Follows Transpositions")
+    public void followsTranspositions() throws IOException, InvalidMoveException {
+        OpeningBook book = build();
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(Fen.parseSquare("e2"), Fen.parseSquare("e4"), null));
+        game.makeMove(ChessMove.of(Fen.parseSquare("c7"), Fen.parseSquare("c5"), null));
+        Assertions.assertEquals("g1f3", Fen.moveName(book.bestMove(game)));
+    }
+
+    @Test
+    @DisplayName("Out Of Book")
+    public void outOfBook() throws IOException {
+        OpeningBook book = build();
+        ChessGame game = Fen.parse("4k3/8/8/8/8/8/8/4K2R w K - 0 1");
+        Assertions.assertTrue(book.lookup(game).isEmpty());
+        Assertions.assertNull(book.bestMove(game));
+        Assertions.assertNull(book.randomMove(game, new Random(1)));
+    }
+
+    @Test
+    @DisplayName("Random Move Is Legal Book Move")
+    public void randomMoveIsBookMove() throws IOException {
+        OpeningBook book = build();
+        Random random = new Random(7);
+        int kingsPawn = 0;
+        for (int i = 0; i < 300; i++) {
+            String move = Fen.moveName(book.randomMove(new ChessGame(), random));
+            Assertions.assertTrue(move.equals("e2e4") || move.equals("d2d4"), move);
+            if (move.equals("e2e4")) { kingsPawn++; }
+        }
+        // e2e4 has two thirds of the weight
+        Assertions.assertTrue(kingsPawn > 150 && kingsPawn < 250, "e2e4 picked " + kingsPawn + " times");
+    }
+
+    @Test
+    @DisplayName("Rejects Bad Input")
+    public void rejectsBadInput() throws IOException {
+        Assertions.assertThrows(IOException.class,
+                () -> new OpeningBook.Builder().addLines(new StringReader("e2e4 e2e4"), 16));
+        Assertions.assertThrows(IOException.class,
+                () -> new OpeningBook.Builder().addLines(new StringReader("e2e4 x"), 16));
+
+        Path notABook = dir.resolve("notes.txt");
+        Files.writeString(notABook, "this is not an opening book");
+        Assertions.assertThrows(IOException.class, () -> OpeningBook.open(notABook));
+    }
+}
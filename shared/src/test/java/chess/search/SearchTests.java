@@ -0,0 +1,55 @@
+package chess.search;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SearchTests {
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void findsMateInOne() {
+        ChessGame game = Fen.parse("r1bqkbnr/pppp1ppp/2n5/4p3/2B1P3/5Q2/PPPP1PPP/RNB1K1NR w KQkq - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+        Assertions.assertEquals("f3f7", Fen.moveName(result.bestMove()));
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(1, result.matePlies());
+    }
+
+    @Test
+    @DisplayName("Wins Hanging Queen")
+    public void winsHangingQueen() {
+        ChessGame game = Fen.parse("rnb1kbnr/pppp1ppp/8/4p1q1/4P3/3P4/PPP2PPP/RNBQKBNR w KQkq - 0 1");
+        ChessMove move = Search.findBestMove(game, SearchLimits.depth(4));
+        Assertions.assertEquals("c1g5", Fen.moveName(move));
+    }
+
+    @Test
+    @DisplayName("Leaves Game Unchanged")
+    public void leavesGameUnchanged() {
+        ChessGame game = Fen.parse(Perft.KIWIPETE);
+        String before = Fen.toFen(game);
+        Search.findBestMove(game, SearchLimits.depth(3));
+        Assertions.assertEquals(before, Fen.toFen(game));
+    }
+
+    @Test
+    @DisplayName("Respects Node Budget")
+    public void respectsNodeBudget() {
+        ChessGame game = Fen.parse(Perft.KIWIPETE);
+        SearchResult result = new Search().search(game, SearchLimits.nodes(5000));
+        Assertions.assertTrue(result.nodes() <= 5000, "searched " + result.nodes() + " nodes");
+        Assertions.assertNotNull(result.bestMove());
+        Assertions.assertTrue(game.validMoves(result.bestMove().getStartPosition()).contains(result.bestMove()));
+    }
+
+    @Test
+    @DisplayName("No Move When Mated")
+    public void noMoveWhenMated() {
+        ChessGame game = Fen.parse("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        SearchResult result = new Search().search(game, SearchLimits.depth(2));
+        Assertions.assertNull(result.bestMove());
+        Assertions.assertEquals(-Search.MATE, result.score());
+    }
+}
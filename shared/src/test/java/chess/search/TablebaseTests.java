@@ -0,0 +1,84 @@
+package chess.search;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class TablebaseTests {
+    private static Tablebase tablebase;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    public static void generate() {
+        tablebase = Tablebase.generate();
+    }
+
+    private static Tablebase.Wdl probe(String fen) { return tablebase.probe(Fen.parse(fen)); }
+
+    @Test
+    @DisplayName("Mated Side Loses")
+    public void matedSideLoses() {
+        Assertions.assertEquals(Tablebase.Wdl.LOSS, probe("R5k1/8/6K1/8/8/8/8/8 b - - 0 1"));
+        Assertions.assertEquals(Tablebase.Wdl.WIN, probe("6k1/8/6K1/8/8/8/8/R7 w - - 0 1"));
+    }
+
+    @Test
+    @DisplayName("Hanging Piece Is A Draw")
+    public void hangingPieceIsDraw() {
+        // black is the strong side here, so the probe goes through the mirrored table
+        Assertions.assertEquals(Tablebase.Wdl.DRAW, probe("8/8/8/8/8/8/1q6/K6k w - - 0 1"));
+        Assertions.assertEquals(Tablebase.Wdl.WIN, probe("8/8/8/8/8/8/2q5/K6k b - - 0 1"));
+        Assertions.assertEquals(Tablebase.Wdl.DRAW, probe("8/8/8/8/8/8/2q5/K6k w - - 0 1"), "stalemate");
+    }
+
+    @Test
+    @DisplayName("King And Pawn")
+    public void kingAndPawn() {
+        Assertions.assertEquals(Tablebase.Wdl.WIN, probe("4k3/4P3/4K3/8/8/8/8/8 w - - 0 1"));
+        Assertions.assertEquals(Tablebase.Wdl.DRAW, probe("4k3/4P3/4K3/8/8/8/8/8 b - - 0 1"));
+        // a rook pawn cannot drive the king out of the corner
+        Assertions.assertEquals(Tablebase.Wdl.DRAW, probe("k7/8/8/8/8/8/P7/K7 w - - 0 1"));
+        Assertions.assertEquals(Tablebase.Wdl.LOSS, probe("7K/8/8/8/8/8/2kp4/8 w - - 0 1"));
+    }
+
+    @Test
+    @DisplayName("Positions Outside The Tables")
+    public void outsideTables() {
+        Assertions.assertEquals(Tablebase.Wdl.DRAW, probe("8/8/3k4/8/8/3K4/8/8 w - - 0 1"));
+        Assertions.assertEquals(Tablebase.Wdl.DRAW, probe("8/8/3k4/8/8/3KB3/8/8 b - - 0 1"));
+        Assertions.assertNull(probe("8/8/3k4/8/8/3KBN2/8/8 b - - 0 1"));
+        Assertions.assertNull(probe("4k3/8/8/8/8/8/8/4K2R w K - 0 1"));
+        Assertions.assertNull(tablebase.probe(new ChessGame()));
+    }
+
+    @Test
+    @DisplayName("Round Trips Through A File")
+    public void roundTrip() throws IOException {
+        Path file = dir.resolve("tablebase.bin");
+        tablebase.write(file);
+        Tablebase loaded = Tablebase.load(file);
+        Assertions.assertEquals(Tablebase.Wdl.LOSS, loaded.probe(Fen.parse("R5k1/8/6K1/8/8/8/8/8 b - - 0 1")));
+        Assertions.assertEquals(Tablebase.Wdl.DRAW, loaded.probe(Fen.parse("k7/8/8/8/8/8/P7/K7 w - - 0 1")));
+
+        Path gzipped = dir.resolve("tablebase.bin.gz");
+        tablebase.write(gzipped);
+        Assertions.assertTrue(Files.size(gzipped) < Files.size(file) / 4, "gzipped size " + Files.size(gzipped));
+        Assertions.assertEquals(Tablebase.Wdl.WIN, Tablebase.load(gzipped).probe(Fen.parse("4k3/4P3/4K3/8/8/8/8/8 w - - 0 1")));
+
+        Path notATablebase = dir.resolve("notes.txt");
+        Files.writeString(notATablebase, "nothing here");
+        Assertions.assertThrows(IOException.class, () -> Tablebase.load(notATablebase));
+        Path notGzipped = dir.resolve("notes.gz");
+        Files.writeString(notGzipped, "nothing here");
+        Assertions.assertThrows(IOException.class, () -> Tablebase.load(notGzipped));
+    }
+}